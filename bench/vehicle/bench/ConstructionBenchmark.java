@@ -0,0 +1,120 @@
+package vehicle.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionFactory;
+
+
+/**
+ * This class measures building a RegularManualTransmission from its ten speeds,
+ * which includes validating the ranges and checking that they cover every speed.
+ * The ranges are read from fields so that the JIT cannot fold the validation away.
+ * Known configurations are also built through the validation cache of TransmissionFactory.
+ * Gearboxes with more gears are built from their ranges as an int array, and the
+ * same five gears are also scaled to wider speed spans to show that validation
+ * does not depend on the span.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+  private int[] ranges = {0, 20, 15, 40, 35, 60, 55, 80, 75, 100};
+  private int[] invalidRanges = {0, 20, 15, 40, 35, 60, 55, 80, 75, 60};
+
+  @Benchmark
+  public ManualTransmission construct() {
+    int[] r = ranges;
+    return new RegularManualTransmission(r[0], r[1], r[2], r[3], r[4],
+            r[5], r[6], r[7], r[8], r[9]);
+  }
+
+  @Benchmark
+  public ManualTransmission constructFromFactory() {
+    return TransmissionFactory.of(ranges);
+  }
+
+  @Benchmark
+  public String constructInvalid() {
+    int[] r = invalidRanges;
+    try {
+      new RegularManualTransmission(r[0], r[1], r[2], r[3], r[4],
+              r[5], r[6], r[7], r[8], r[9]);
+      return null;
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  @Benchmark
+  public GearRangeTable constructGearbox(Gearbox gearbox) {
+    return new GearRangeTable(gearbox.ranges);
+  }
+
+  /**
+   * A gearbox with the given number of gears, each overlapping its neighbours
+   * by five speed units.
+   */
+  @State(Scope.Thread)
+  public static class Gearbox {
+
+    @Param({"5", "7", "12", "18"})
+    private int gears;
+
+    private int[] ranges;
+
+    @Setup
+    public void setUp() {
+      ranges = new int[2 * gears];
+      for (int gear = 0; gear < gears; gear++) {
+        ranges[2 * gear] = gear == 0 ? 0 : 20 * gear - 5;
+        ranges[2 * gear + 1] = 20 * gear + 20;
+      }
+    }
+  }
+
+  @Benchmark
+  public GearRangeTable constructSpan(Span span) {
+    return new GearRangeTable(span.ranges);
+  }
+
+  /**
+   * Five overlapping gears scaled so that the speed limit is the given span,
+   * e.g. 0.1 km/h units for a span of 5000.
+   */
+  @State(Scope.Thread)
+  public static class Span {
+
+    @Param({"100", "5000", "100000"})
+    private int span;
+
+    private int[] ranges;
+
+    @Setup
+    public void setUp() {
+      int[] base = {0, 20, 15, 40, 35, 60, 55, 80, 75, 100};
+      ranges = new int[base.length];
+      for (int i = 0; i < base.length; i++) {
+        ranges[i] = (int) ((long) base[i] * span / 100);
+      }
+    }
+  }
+}
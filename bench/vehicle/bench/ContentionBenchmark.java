@@ -0,0 +1,107 @@
+package vehicle.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.ConcurrentTransmission;
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStatus;
+
+
+/**
+ * This class measures one vehicle driven by several controller threads at once:
+ * two threads accelerating, two braking and one reading the state, as driver input,
+ * cruise control and telemetry would. The lock-free ConcurrentTransmission is
+ * compared with an immutable transmission behind a synchronized wrapper.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+
+  private final GearRangeTable speedRanges = new GearRangeTable(0, 1_000_000);
+  private final ConcurrentTransmission lockFree = new ConcurrentTransmission(speedRanges);
+  private final SynchronizedTransmission locked = new SynchronizedTransmission(
+          new RegularManualTransmission(speedRanges));
+
+  @Benchmark
+  @Group("lockFree")
+  @GroupThreads(2)
+  public TransmissionStatus lockFreeAccelerate() {
+    return lockFree.step(TransmissionAction.INCREASE_SPEED);
+  }
+
+  @Benchmark
+  @Group("lockFree")
+  @GroupThreads(2)
+  public TransmissionStatus lockFreeBrake() {
+    return lockFree.step(TransmissionAction.DECREASE_SPEED);
+  }
+
+  @Benchmark
+  @Group("lockFree")
+  @GroupThreads(1)
+  public ManualTransmission lockFreeRead() {
+    return lockFree.snapshot();
+  }
+
+  @Benchmark
+  @Group("synchronized")
+  @GroupThreads(2)
+  public TransmissionStatus synchronizedAccelerate() {
+    return locked.step(TransmissionAction.INCREASE_SPEED);
+  }
+
+  @Benchmark
+  @Group("synchronized")
+  @GroupThreads(2)
+  public TransmissionStatus synchronizedBrake() {
+    return locked.step(TransmissionAction.DECREASE_SPEED);
+  }
+
+  @Benchmark
+  @Group("synchronized")
+  @GroupThreads(1)
+  public ManualTransmission synchronizedRead() {
+    return locked.snapshot();
+  }
+
+  /**
+   * The external synchronisation controller threads used before: an immutable
+   * transmission reference replaced under a lock.
+   */
+  private static final class SynchronizedTransmission {
+
+    private ManualTransmission current;
+
+    SynchronizedTransmission(ManualTransmission start) {
+      this.current = start;
+    }
+
+    synchronized TransmissionStatus step(TransmissionAction action) {
+      current = action.apply(current);
+      return current.getTransmissionStatus();
+    }
+
+    synchronized ManualTransmission snapshot() {
+      return current;
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package vehicle.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.ManualTransmission;
+import vehicle.ReplayTrace;
+import vehicle.TransmissionReplay;
+
+
+/**
+ * This class replays realistic drive cycles: a ramp from standstill to the speed
+ * limit, city stop-and-go traffic and a random walk over all four actions.
+ * Each benchmark reports one operation per replayed cycle, for every transmission engine,
+ * both step by step and through the batch {@link TransmissionReplay}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriveCycleBenchmark {
+
+  @Param({"regular", "lookup", "cached", "automatic"})
+  private String engine;
+
+  private ManualTransmission start;
+  private byte[] ramp;
+  private byte[] stopAndGo;
+  private byte[] randomWalk;
+  private ReplayTrace trace;
+
+  @Setup
+  public void setUp() {
+    start = DriveCycles.newTransmission(engine);
+    ramp = DriveCycles.ramp();
+    stopAndGo = DriveCycles.stopAndGo(20);
+    randomWalk = DriveCycles.randomWalk(10_000, 42L);
+    trace = new ReplayTrace(randomWalk.length);
+  }
+
+  @Benchmark
+  public ManualTransmission ramp() {
+    return DriveCycles.replay(start, ramp);
+  }
+
+  @Benchmark
+  public ManualTransmission stopAndGo() {
+    return DriveCycles.replay(start, stopAndGo);
+  }
+
+  @Benchmark
+  public ManualTransmission randomWalk() {
+    return DriveCycles.replay(start, randomWalk);
+  }
+
+  @Benchmark
+  public ManualTransmission batchRandomWalk() {
+    return TransmissionReplay.replay(start, randomWalk);
+  }
+
+  @Benchmark
+  public ManualTransmission tracedRandomWalk() {
+    return TransmissionReplay.replay(start, randomWalk, trace);
+  }
+}
@@ -0,0 +1,179 @@
+package vehicle.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import vehicle.AutomaticTransmission;
+import vehicle.GearRangeTable;
+import vehicle.LookupTableTransmission;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStateCache;
+
+
+/**
+ * This class builds the recorded drive cycles used by the benchmarks. A drive cycle
+ * is an array of {@link TransmissionAction} codes that is replayed against a transmission.
+ */
+final class DriveCycles {
+
+  private static final int[] ranges = {0, 20, 15, 40, 35, 60, 55, 80, 75, 100};
+
+  private DriveCycles() {
+  }
+
+  /**
+   * Create the transmission every benchmark starts from: five overlapping gears
+   * covering the speeds 0 to 100.
+   *
+   * @return a new transmission in its initial state.
+   */
+  static ManualTransmission newTransmission() {
+    return newTransmission("regular");
+  }
+
+  /**
+   * Create the benchmark transmission using the named engine.
+   *
+   * @param engine "regular" for RegularManualTransmission, "lookup" for
+   *               LookupTableTransmission, "cached" for a RegularManualTransmission
+   *               backed by a TransmissionStateCache or "automatic" for
+   *               AutomaticTransmission
+   * @return a new transmission in its initial state.
+   */
+  static ManualTransmission newTransmission(String engine) {
+    switch (engine) {
+      case "regular":
+        return new RegularManualTransmission(ranges[0], ranges[1], ranges[2], ranges[3],
+                ranges[4], ranges[5], ranges[6], ranges[7], ranges[8], ranges[9]);
+      case "lookup":
+        return new LookupTableTransmission(ranges);
+      case "cached":
+        return new TransmissionStateCache(new GearRangeTable(ranges)).initial();
+      case "automatic":
+        return new AutomaticTransmission(ranges);
+      default:
+        throw new IllegalArgumentException("Unknown engine " + engine);
+    }
+  }
+
+  /**
+   * Apply one action code to the given transmission.
+   *
+   * @param transmission transmission to drive
+   * @param action       action code
+   * @return resulting transmission.
+   */
+  static ManualTransmission apply(ManualTransmission transmission, byte action) {
+    return TransmissionAction.fromCode(action).apply(transmission);
+  }
+
+  /**
+   * Replay a whole drive cycle against the given transmission.
+   *
+   * @param transmission transmission to start from
+   * @param actions      action codes to apply in order
+   * @return transmission after the last action.
+   */
+  static ManualTransmission replay(ManualTransmission transmission, byte[] actions) {
+    ManualTransmission current = transmission;
+    for (byte action : actions) {
+      current = apply(current, action);
+    }
+    return current;
+  }
+
+  /**
+   * Accelerate from standstill to the speed limit, shifting up whenever the
+   * transmission asks for it.
+   *
+   * @return the action codes of the ramp.
+   */
+  static byte[] ramp() {
+    Recorder recorder = new Recorder();
+    recorder.accelerateTo(Integer.MAX_VALUE);
+    return recorder.toArray();
+  }
+
+  /**
+   * Repeatedly accelerate to a moderate speed and brake back to standstill,
+   * as in city traffic.
+   *
+   * @param stops number of stop-and-go cycles
+   * @return the action codes of the cycle.
+   */
+  static byte[] stopAndGo(int stops) {
+    Recorder recorder = new Recorder();
+    for (int i = 0; i < stops; i++) {
+      recorder.accelerateTo(20 + 10 * (i % 4));
+      recorder.brakeTo(0);
+    }
+    return recorder.toArray();
+  }
+
+  /**
+   * Pick actions uniformly at random, including the ones that get rejected.
+   *
+   * @param length number of actions
+   * @param seed   random seed, so that every fork replays the same walk
+   * @return the action codes of the walk.
+   */
+  static byte[] randomWalk(int length, long seed) {
+    Random random = new Random(seed);
+    byte[] actions = new byte[length];
+    for (int i = 0; i < length; i++) {
+      actions[i] = (byte) random.nextInt(TransmissionAction.values().length);
+    }
+    return actions;
+  }
+
+  /**
+   * Records the actions of a simple driver that shifts whenever the transmission
+   * refuses to change speed in the current gear.
+   */
+  private static final class Recorder {
+
+    private ManualTransmission current = newTransmission();
+    private byte[] actions = new byte[64];
+    private int length;
+
+    private void accelerateTo(int target) {
+      while (current.getSpeed() < target) {
+        ManualTransmission next = record(TransmissionAction.INCREASE_SPEED);
+        if (next.getSpeed() == current.getSpeed()) {
+          next = record(TransmissionAction.INCREASE_GEAR);
+          if (next.getGear() == current.getGear()) {
+            return;
+          }
+        }
+        current = next;
+      }
+    }
+
+    private void brakeTo(int target) {
+      while (current.getSpeed() > target) {
+        ManualTransmission next = record(TransmissionAction.DECREASE_SPEED);
+        if (next.getSpeed() == current.getSpeed()) {
+          next = record(TransmissionAction.DECREASE_GEAR);
+          if (next.getGear() == current.getGear()) {
+            return;
+          }
+        }
+        current = next;
+      }
+    }
+
+    private ManualTransmission record(TransmissionAction action) {
+      if (length == actions.length) {
+        actions = Arrays.copyOf(actions, 2 * length);
+      }
+      actions[length++] = action.getCode();
+      return action.apply(current);
+    }
+
+    private byte[] toArray() {
+      return Arrays.copyOf(actions, length);
+    }
+  }
+}
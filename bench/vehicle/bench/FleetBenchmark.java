@@ -0,0 +1,72 @@
+package vehicle.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionFleet;
+
+
+/**
+ * This class measures one tick of a whole fleet: every vehicle takes one random action.
+ * It compares the primitive-array TransmissionFleet with an array holding one
+ * immutable transmission object per vehicle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class FleetBenchmark {
+
+  @Param({"100000", "1000000"})
+  private int size;
+
+  private TransmissionFleet fleet;
+  private ManualTransmission[] objects;
+  private byte[] actions;
+
+  @Setup
+  public void setUp() {
+    GearRangeTable speedRanges = new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+    fleet = new TransmissionFleet(size, speedRanges);
+    objects = new ManualTransmission[size];
+    for (int vehicle = 0; vehicle < size; vehicle++) {
+      objects[vehicle] = DriveCycles.newTransmission();
+    }
+    actions = new byte[size];
+    Random random = new Random(42);
+    for (int vehicle = 0; vehicle < size; vehicle++) {
+      actions[vehicle] = (byte) random.nextInt(TransmissionAction.values().length);
+    }
+  }
+
+  @Benchmark
+  public TransmissionFleet fleetTick() {
+    fleet.applyActions(actions);
+    return fleet;
+  }
+
+  @Benchmark
+  public ManualTransmission[] objectTick() {
+    for (int vehicle = 0; vehicle < size; vehicle++) {
+      objects[vehicle] = DriveCycles.apply(objects[vehicle], actions[vehicle]);
+    }
+    return objects;
+  }
+}
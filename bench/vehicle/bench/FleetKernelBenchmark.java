@@ -0,0 +1,66 @@
+package vehicle.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.FleetKernel;
+import vehicle.GearRangeTable;
+
+
+/**
+ * This class compares the scalar fleet kernel with the preferred one, which is the
+ * Vector API kernel when the benchmarks were built with the vector profile. The
+ * forked JVM adds the incubator module, so this benchmark needs JDK 17 or later.
+ * Each benchmark reports one operation per stepped vehicle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class FleetKernelBenchmark {
+
+  private static final int size = 1 << 20;
+
+  @Param({"scalar", "preferred"})
+  private String kernelName;
+
+  private final GearRangeTable speedRanges =
+          new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+  private FleetKernel kernel;
+  private int[] speeds;
+  private byte[] gears;
+  private byte[] statusCodes;
+  private byte[] actions;
+
+  @Setup
+  public void setUp() {
+    kernel = "scalar".equals(kernelName) ? FleetKernel.scalar() : FleetKernel.preferred();
+    speeds = new int[size];
+    gears = new byte[size];
+    statusCodes = new byte[size];
+    Arrays.fill(gears, (byte) 1);
+    actions = DriveCycles.randomWalk(size, 42L);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(size)
+  public byte[] step() {
+    kernel.step(speedRanges, 1, speeds, gears, statusCodes, actions, 0, size);
+    return statusCodes;
+  }
+}
@@ -0,0 +1,74 @@
+package vehicle.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionHistory;
+
+
+/**
+ * This class measures the trade-off of the snapshot interval K of TransmissionHistory:
+ * rebuilding the state at a random step of a one-million-step history, and recording
+ * a random-walk drive cycle. The history takes about 1/4 + 8/K bytes per step, so
+ * K = 1 costs 8.25 bytes per step and K = 4096 about a quarter of a byte.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryBenchmark {
+
+  private static final int stepCount = 1_000_000;
+
+  @Param({"1", "16", "256", "4096"})
+  private int snapshotInterval;
+
+  private TransmissionHistory history;
+  private byte[] randomWalk;
+  private int[] lookups;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    randomWalk = DriveCycles.randomWalk(stepCount, 42L);
+    history = new TransmissionHistory(
+            (RegularManualTransmission) DriveCycles.newTransmission(), snapshotInterval);
+    history.record(randomWalk);
+    lookups = new int[1 << 16];
+    Random random = new Random(7);
+    for (int i = 0; i < lookups.length; i++) {
+      lookups[i] = random.nextInt(stepCount + 1);
+    }
+  }
+
+  @Benchmark
+  public long stateAt() {
+    int step = lookups[next++ & (lookups.length - 1)];
+    return history.packedStateAt(step);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public TransmissionHistory record() {
+    TransmissionHistory recorded = new TransmissionHistory(
+            (RegularManualTransmission) DriveCycles.newTransmission(), snapshotInterval);
+    recorded.record(randomWalk);
+    return recorded;
+  }
+}
@@ -0,0 +1,66 @@
+package vehicle.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.GearRangeTable;
+import vehicle.InstrumentedTransmission;
+import vehicle.ManualTransmission;
+import vehicle.TransmissionMetrics;
+
+
+/**
+ * This class measures the cost of instrumentation on a random-walk drive cycle and
+ * on validating speed ranges. With instrumentation off the results should match
+ * the regular engine of DriveCycleBenchmark and ConstructionBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationBenchmark {
+
+  private static final int[] ranges = {0, 20, 15, 40, 35, 60, 55, 80, 75, 100};
+
+  @Param({"off", "on"})
+  private String instrumentation;
+
+  private TransmissionMetrics metrics;
+  private ManualTransmission start;
+  private byte[] randomWalk;
+
+  @Setup
+  public void setUp() {
+    if ("on".equals(instrumentation)) {
+      metrics = new TransmissionMetrics();
+    }
+    start = InstrumentedTransmission.wrap(DriveCycles.newTransmission(), metrics);
+    randomWalk = DriveCycles.randomWalk(10_000, 42L);
+  }
+
+  @Benchmark
+  public ManualTransmission randomWalk() {
+    return DriveCycles.replay(start, randomWalk);
+  }
+
+  @Benchmark
+  public GearRangeTable validate() {
+    if (metrics == null) {
+      return new GearRangeTable(ranges);
+    }
+    return metrics.speedRanges(ranges);
+  }
+}
@@ -0,0 +1,77 @@
+package vehicle.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.ManualTransmission;
+import vehicle.MappedTraceFile;
+import vehicle.MappedTraceWriter;
+import vehicle.RegularManualTransmission;
+import vehicle.ReplayTrace;
+import vehicle.TransmissionReplay;
+
+
+/**
+ * This class measures seeking to random steps of a long recorded session through a
+ * memory-mapped trace file. The cost of a seek should not grow with the session length.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappedTraceBenchmark {
+
+  private static final int chunk = 1 << 20;
+
+  @Param({"1000000", "50000000"})
+  private long steps;
+
+  private Path path;
+  private MappedTraceFile trace;
+  private long seed = 42L;
+
+  @Setup
+  public void setUp() throws IOException {
+    path = Files.createTempFile("transmission", ".trace");
+    RegularManualTransmission start = (RegularManualTransmission) DriveCycles.newTransmission();
+    byte[] actions = DriveCycles.randomWalk(chunk, 42L);
+    ReplayTrace replay = new ReplayTrace(chunk);
+    try (MappedTraceWriter writer = new MappedTraceWriter(path, start)) {
+      ManualTransmission current = start;
+      for (long written = 0; written < steps; written += chunk) {
+        current = TransmissionReplay.replay(current, actions, replay);
+        writer.write(actions, replay);
+      }
+    }
+    trace = MappedTraceFile.open(path);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    trace.close();
+    Files.deleteIfExists(path);
+  }
+
+  @Benchmark
+  public ManualTransmission stateAt() {
+    seed = seed * 6364136223846793005L + 1442695040888963407L;
+    return trace.stateAt(Long.remainderUnsigned(seed, trace.getStepCount() + 1));
+  }
+}
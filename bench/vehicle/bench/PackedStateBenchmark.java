@@ -0,0 +1,71 @@
+package vehicle.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.GearRangeTable;
+import vehicle.TransmissionStateCodec;
+
+
+/**
+ * This class measures transitions on packed states: a random walk of one vehicle
+ * kept in a local long, and one tick of a fleet kept in a long[]. Each benchmark
+ * reports one operation per transition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedStateBenchmark {
+
+  private static final int walkLength = 10_000;
+  private static final int fleetSize = 1_000_000;
+
+  private final GearRangeTable speedRanges =
+          new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+  private byte[] walk;
+  private byte[] fleetActions;
+  private long[] fleet;
+
+  @Setup
+  public void setUp() {
+    walk = DriveCycles.randomWalk(walkLength, 42L);
+    fleetActions = DriveCycles.randomWalk(fleetSize, 7L);
+    fleet = new long[fleetSize];
+    Arrays.fill(fleet, TransmissionStateCodec.initial(speedRanges));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(walkLength)
+  public long randomWalk() {
+    long state = TransmissionStateCodec.initial(speedRanges);
+    for (byte action : walk) {
+      state = TransmissionStateCodec.step(speedRanges, state, action);
+    }
+    return state;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(fleetSize)
+  public long[] fleetTick() {
+    for (int vehicle = 0; vehicle < fleetSize; vehicle++) {
+      fleet[vehicle] = TransmissionStateCodec.step(speedRanges, fleet[vehicle],
+              fleetActions[vehicle]);
+    }
+    return fleet;
+  }
+}
@@ -0,0 +1,79 @@
+package vehicle.bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.GearRangeTable;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionFleet;
+
+
+/**
+ * This class measures how one fleet tick scales with the number of threads of the
+ * fork-join pool and with the chunk size. A single thread stepping the fleet
+ * sequentially is included as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ParallelFleetBenchmark {
+
+  @Param({"10000000"})
+  private int size;
+
+  @Param({"1", "2", "4", "8"})
+  private int threads;
+
+  @Param({"4096", "65536"})
+  private int chunkSize;
+
+  private TransmissionFleet fleet;
+  private byte[] actions;
+  private ForkJoinPool pool;
+
+  @Setup
+  public void setUp() {
+    GearRangeTable speedRanges = new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+    fleet = new TransmissionFleet(size, speedRanges);
+    actions = new byte[size];
+    Random random = new Random(42);
+    for (int vehicle = 0; vehicle < size; vehicle++) {
+      actions[vehicle] = (byte) random.nextInt(TransmissionAction.values().length);
+    }
+    pool = new ForkJoinPool(threads);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public TransmissionFleet sequentialTick() {
+    fleet.applyActions(actions);
+    return fleet;
+  }
+
+  @Benchmark
+  public TransmissionFleet parallelTick() {
+    fleet.applyActions(actions, pool, chunkSize);
+    return fleet;
+  }
+}
@@ -0,0 +1,84 @@
+package vehicle.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.CommandPipeline;
+import vehicle.InProcessTransport;
+import vehicle.ManualTransmission;
+import vehicle.TransmissionAction;
+
+
+/**
+ * This class measures the time to apply one batch of random-walk actions through a
+ * CommandPipeline behind an InProcessTransport, sending either one message per
+ * action or the whole batch as one message, with and without the intermediate
+ * states. The delay is the one-way latency of the stand-in transport; with no delay
+ * the results show the cost of the queue hand-off alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+
+  @Param({"16", "256"})
+  private int batchSize;
+
+  @Param({"0", "5000"})
+  private long delayNanos;
+
+  private CommandPipeline pipeline;
+  private InProcessTransport transport;
+  private TransmissionAction[] actions;
+  private byte[] batch;
+
+  @Setup
+  public void setUp() {
+    pipeline = new CommandPipeline(DriveCycles.newTransmission(), 64);
+    transport = new InProcessTransport(pipeline, delayNanos);
+    batch = DriveCycles.randomWalk(batchSize, 42L);
+    actions = new TransmissionAction[batchSize];
+    for (int i = 0; i < batchSize; i++) {
+      actions[i] = TransmissionAction.fromCode(batch[i]);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    pipeline.close();
+  }
+
+  @Benchmark
+  public ManualTransmission perCall() throws InterruptedException {
+    ManualTransmission state = null;
+    for (TransmissionAction action : actions) {
+      state = transport.send(action);
+    }
+    return state;
+  }
+
+  @Benchmark
+  public CommandPipeline.Result batchedFinalState() throws InterruptedException {
+    return transport.send(batch, false);
+  }
+
+  @Benchmark
+  public CommandPipeline.Result batchedIntermediate() throws InterruptedException {
+    return transport.send(batch, true);
+  }
+}
@@ -0,0 +1,165 @@
+package vehicle.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import vehicle.GearRangeTable;
+import vehicle.TransmissionServer;
+
+
+/**
+ * This class is a load generator for TransmissionServer. It opens the given number of
+ * sessions at once, each sending request lines of random commands and waiting for the
+ * reply before the next one, and reports the round-trip latency percentiles over every
+ * request of every session. Unlike the JMH benchmarks it is run directly:
+ * <pre>
+ * java -cp target/benchmarks.jar vehicle.bench.SessionLoadClient \
+ *     [sessions] [requestsPerSession] [commandsPerRequest] [port]
+ * </pre>
+ * Without a port an embedded server is started on a free port. With tens of thousands
+ * of sessions, raise the open file limit (ulimit -n) of both processes first.
+ */
+public final class SessionLoadClient {
+
+  private static final String[] commands = {"+S", "-S", "+G", "-G"};
+
+  private SessionLoadClient() {
+  }
+
+  /**
+   * Run the load and print throughput and latency percentiles.
+   *
+   * @param args sessions, requests per session, commands per request and an optional port
+   * @throws Exception if the server cannot be started or the load is interrupted
+   */
+  public static void main(String[] args) throws Exception {
+    int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    int requests = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+    int batch = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+    TransmissionServer embedded = null;
+    int port;
+    if (args.length > 3) {
+      port = Integer.parseInt(args[3]);
+    } else {
+      embedded = TransmissionServer.start(
+              new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100), 0);
+      port = embedded.getPort();
+    }
+    try {
+      run(port, sessions, requests, batch);
+    } finally {
+      if (embedded != null) {
+        embedded.close();
+      }
+    }
+  }
+
+  private static void run(int port, int sessions, int requests, int batch)
+          throws InterruptedException {
+    long[][] latencies = new long[sessions][];
+    AtomicInteger failures = new AtomicInteger();
+    CountDownLatch connected = new CountDownLatch(sessions);
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(sessions);
+    ExecutorService clients = newClientExecutor();
+    for (int s = 0; s < sessions; s++) {
+      int session = s;
+      clients.execute(() -> {
+        try {
+          latencies[session] = drive(port, session, requests, batch, connected, start);
+        } catch (IOException | InterruptedException e) {
+          failures.incrementAndGet();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    connected.await();
+    long began = System.nanoTime();
+    start.countDown();
+    done.await();
+    long elapsed = System.nanoTime() - began;
+    clients.shutdown();
+    clients.awaitTermination(1, TimeUnit.MINUTES);
+
+    long[] all = Arrays.stream(latencies).filter(l -> l != null)
+            .flatMapToLong(Arrays::stream).sorted().toArray();
+    System.out.printf("sessions=%d requests/session=%d commands/request=%d failed=%d%n",
+            sessions, requests, batch, failures.get());
+    if (all.length == 0) {
+      return;
+    }
+    System.out.printf("%d requests in %.2f s: %.0f requests/s, %.0f commands/s%n",
+            all.length, elapsed / 1e9, all.length * 1e9 / elapsed,
+            (double) all.length * batch * 1e9 / elapsed);
+    System.out.printf("latency us: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+            percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+            percentile(all, 0.999), all[all.length - 1] / 1e3);
+  }
+
+  private static long[] drive(int port, int session, int requests, int batch,
+                              CountDownLatch connected, CountDownLatch start)
+          throws IOException, InterruptedException {
+    Random random = new Random(session);
+    long[] latencies = new long[requests];
+    boolean counted = false;
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      socket.setTcpNoDelay(true);
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+              StandardCharsets.US_ASCII));
+      OutputStream out = socket.getOutputStream();
+      connected.countDown();
+      counted = true;
+      start.await();
+      for (int request = 0; request < requests; request++) {
+        StringBuilder line = new StringBuilder(batch * 3);
+        for (int i = 0; i < batch; i++) {
+          line.append(commands[random.nextInt(commands.length)]).append(' ');
+        }
+        line.setCharAt(line.length() - 1, '\n');
+        byte[] bytes = line.toString().getBytes(StandardCharsets.US_ASCII);
+        long sent = System.nanoTime();
+        out.write(bytes);
+        out.flush();
+        if (in.readLine() == null) {
+          throw new IOException("Session " + session + " was closed by the server.");
+        }
+        latencies[request] = System.nanoTime() - sent;
+      }
+    } finally {
+      if (!counted) {
+        connected.countDown();
+      }
+    }
+    return latencies;
+  }
+
+  private static double percentile(long[] sorted, double fraction) {
+    int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+    return sorted[Math.max(0, index)] / 1e3;
+  }
+
+  /**
+   * One virtual thread per session when the JVM has them, as in the server.
+   */
+  private static ExecutorService newClientExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+              .invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+}
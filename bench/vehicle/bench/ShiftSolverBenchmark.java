@@ -0,0 +1,56 @@
+package vehicle.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.GearRangeTable;
+import vehicle.ShiftSolver;
+
+
+/**
+ * This class compares the first shortest-path query from a state, which runs a
+ * breadth-first search, with repeated queries answered from the cached row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShiftSolverBenchmark {
+
+  private final GearRangeTable speedRanges =
+          new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+  private ShiftSolver warmSolver;
+
+  @Setup
+  public void setUp() {
+    warmSolver = new ShiftSolver(speedRanges);
+    warmSolver.distance(0, 1, 100, 5);
+  }
+
+  @Benchmark
+  public byte[] coldQuery() {
+    return new ShiftSolver(speedRanges).shortestPath(0, 1, 100, 5);
+  }
+
+  @Benchmark
+  public int cachedDistance() {
+    return warmSolver.distance(0, 1, 100, 5);
+  }
+
+  @Benchmark
+  public byte[] cachedPath() {
+    return warmSolver.shortestPath(0, 1, 100, 5);
+  }
+}
@@ -0,0 +1,138 @@
+package vehicle.bench;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.ReplayTrace;
+import vehicle.TraceReader;
+import vehicle.TraceWriter;
+import vehicle.TransmissionReplay;
+
+
+/**
+ * This class measures how fast a recorded drive cycle is written to and read back
+ * from the binary trace format, without any disk in the way. Each benchmark reports
+ * one operation per traced transition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceBenchmark {
+
+  private static final int steps = 100_000;
+
+  private byte[] actions;
+  private ReplayTrace trace;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    actions = DriveCycles.randomWalk(steps, 42L);
+    trace = new ReplayTrace(steps);
+    TransmissionReplay.replay(DriveCycles.newTransmission(), actions, trace);
+    MemoryChannel channel = new MemoryChannel(4 * steps + 16);
+    try (TraceWriter writer = new TraceWriter(channel)) {
+      writer.write(actions, trace);
+    }
+    encoded = channel.toByteArray();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(steps)
+  public long write() throws IOException {
+    MemoryChannel channel = new MemoryChannel(0);
+    try (TraceWriter writer = new TraceWriter(channel)) {
+      writer.write(actions, trace);
+    }
+    return channel.written;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(steps)
+  public long read() throws IOException {
+    long sum = 0;
+    try (TraceReader reader = new TraceReader(new MemoryChannel(encoded))) {
+      while (reader.next()) {
+        sum += reader.getSpeed() + reader.getGear() + reader.getStatusCode();
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * A channel over a heap buffer. With a capacity of 0 it only counts the bytes
+   * written to it.
+   */
+  private static final class MemoryChannel implements WritableByteChannel, ReadableByteChannel {
+
+    private final ByteBuffer data;
+    private long written;
+
+    MemoryChannel(int capacity) {
+      this.data = ByteBuffer.allocate(capacity);
+    }
+
+    MemoryChannel(byte[] bytes) {
+      this.data = ByteBuffer.wrap(bytes);
+    }
+
+    @Override
+    public int write(ByteBuffer source) {
+      int length = source.remaining();
+      if (data.capacity() > 0) {
+        data.put(source);
+      } else {
+        source.position(source.limit());
+      }
+      written += length;
+      return length;
+    }
+
+    @Override
+    public int read(ByteBuffer target) {
+      if (!data.hasRemaining()) {
+        return -1;
+      }
+      int length = Math.min(target.remaining(), data.remaining());
+      ByteBuffer slice = data.slice();
+      slice.limit(length);
+      target.put(slice);
+      data.position(data.position() + length);
+      return length;
+    }
+
+    byte[] toByteArray() {
+      byte[] bytes = new byte[data.position()];
+      data.flip();
+      data.get(bytes);
+      return bytes;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
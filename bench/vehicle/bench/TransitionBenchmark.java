@@ -0,0 +1,77 @@
+package vehicle.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vehicle.ManualTransmission;
+
+
+/**
+ * This class measures each of the four transitions on its own, starting from
+ * a transmission in third gear at a speed where every transition is permitted,
+ * for every transmission engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransitionBenchmark {
+
+  @Param({"regular", "lookup", "cached", "automatic"})
+  private String engine;
+
+  private ManualTransmission cruising;
+
+  /**
+   * Drive the transmission to 57 in third gear, inside the overlap of the
+   * third and fourth gears, where both gear changes are permitted.
+   */
+  @Setup
+  public void setUp() {
+    ManualTransmission current = DriveCycles.newTransmission(engine);
+    while (current.getSpeed() < 57) {
+      ManualTransmission next = current.increaseSpeed();
+      if (next.getSpeed() == current.getSpeed()) {
+        next = current.increaseGear();
+      }
+      current = next;
+    }
+    while (current.getGear() < 3) {
+      current = current.increaseGear();
+    }
+    cruising = current;
+  }
+
+  @Benchmark
+  public ManualTransmission increaseSpeed() {
+    return cruising.increaseSpeed();
+  }
+
+  @Benchmark
+  public ManualTransmission decreaseSpeed() {
+    return cruising.decreaseSpeed();
+  }
+
+  @Benchmark
+  public ManualTransmission increaseGear() {
+    return cruising.increaseGear();
+  }
+
+  @Benchmark
+  public ManualTransmission decreaseGear() {
+    return cruising.decreaseGear();
+  }
+}
@@ -0,0 +1,139 @@
+package vehicle;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * This class steps a batch of vehicles with the JDK Vector API. For each group of
+ * lanes it gathers the bounds of every vehicle's gear, evaluates the outcome of
+ * all four actions with lane-wise comparisons and blends, and then selects the
+ * outcome of the action each vehicle actually took. Gears, actions and status
+ * codes are staged through int blocks because gathers index with int arrays, and
+ * vehicles that do not fill a whole vector are stepped by the scalar kernel.
+ *
+ * <p>This class is only compiled by the vector profile and is loaded by
+ * {@link FleetKernel#preferred()} through reflection.
+ */
+final class VectorFleetKernel extends FleetKernel {
+
+  private static final VectorSpecies<Integer> species = IntVector.SPECIES_PREFERRED;
+  private static final int blockSize = 1024;
+
+  private static final int ok = TransmissionStatus.OK.getCode();
+  private static final int mayIncreaseGear = TransmissionStatus.MAY_INCREASE_GEAR.getCode();
+  private static final int mayDecreaseGear = TransmissionStatus.MAY_DECREASE_GEAR.getCode();
+  private static final int increaseGearFirst = TransmissionStatus.INCREASE_GEAR_FIRST.getCode();
+  private static final int decreaseGearFirst = TransmissionStatus.DECREASE_GEAR_FIRST.getCode();
+  private static final int increaseSpeedFirst =
+          TransmissionStatus.INCREASE_SPEED_FIRST.getCode();
+  private static final int decreaseSpeedFirst =
+          TransmissionStatus.DECREASE_SPEED_FIRST.getCode();
+  private static final int maximumSpeed = TransmissionStatus.MAXIMUM_SPEED.getCode();
+  private static final int minimumSpeed = TransmissionStatus.MINIMUM_SPEED.getCode();
+  private static final int maximumGear = TransmissionStatus.MAXIMUM_GEAR.getCode();
+  private static final int minimumGear = TransmissionStatus.MINIMUM_GEAR.getCode();
+
+  @Override
+  public String getName() {
+    return "vector";
+  }
+
+  @Override
+  public void step(GearRangeTable speedRanges, int speedChange, int[] speeds, byte[] gears,
+                   byte[] statusCodes, byte[] actions, int start, int end)
+          throws IllegalArgumentException {
+    checkActions(actions, start, end);
+    GearBounds bounds = speedRanges.getBounds();
+    int lanes = species.length();
+    int[] gearBlock = new int[blockSize];
+    int[] actionBlock = new int[blockSize];
+    int[] statusBlock = new int[blockSize];
+    int vehicle = start;
+    while (end - vehicle >= lanes) {
+      int length = Math.min(blockSize, (end - vehicle) / lanes * lanes);
+      for (int i = 0; i < length; i++) {
+        gearBlock[i] = gears[vehicle + i];
+        actionBlock[i] = actions[vehicle + i];
+      }
+      for (int i = 0; i < length; i += lanes) {
+        stepLanes(bounds, speedChange, speeds, vehicle + i, gearBlock, actionBlock,
+                statusBlock, i);
+      }
+      for (int i = 0; i < length; i++) {
+        gears[vehicle + i] = (byte) gearBlock[i];
+        statusCodes[vehicle + i] = (byte) statusBlock[i];
+      }
+      vehicle += length;
+    }
+    ScalarFleetKernel.stepChecked(bounds, speedChange, speeds, gears, statusCodes, actions,
+            vehicle, end);
+  }
+
+  private static void stepLanes(GearBounds bounds, int speedChange, int[] speeds, int vehicle,
+                                int[] gearBlock, int[] actionBlock, int[] statusBlock,
+                                int offset) {
+    IntVector speed = IntVector.fromArray(species, speeds, vehicle);
+    IntVector gear = IntVector.fromArray(species, gearBlock, offset);
+    IntVector action = IntVector.fromArray(species, actionBlock, offset);
+    IntVector low = IntVector.fromArray(species, bounds.lowSpeeds, 0, gearBlock, offset);
+    IntVector high = IntVector.fromArray(species, bounds.highSpeeds, 0, gearBlock, offset);
+    IntVector nextLow = IntVector.fromArray(species, bounds.nextLowSpeeds, 0, gearBlock,
+            offset);
+    IntVector previousHigh = IntVector.fromArray(species, bounds.previousHighSpeeds, 0,
+            gearBlock, offset);
+    VectorMask<Integer> top = gear.compare(VectorOperators.EQ, bounds.gearCount);
+    VectorMask<Integer> bottom = gear.compare(VectorOperators.EQ, 1);
+    IntVector okStatus = IntVector.broadcast(species, ok);
+
+    IntVector raised = speed.add(speedChange);
+    VectorMask<Integer> aboveMaximum =
+            speed.compare(VectorOperators.GT, bounds.maxSpeed - speedChange);
+    VectorMask<Integer> reachesNext = raised.compare(VectorOperators.GE, nextLow).andNot(top);
+    VectorMask<Integer> increaseFirst =
+            reachesNext.and(raised.compare(VectorOperators.GT, high));
+    VectorMask<Integer> mayIncrease =
+            reachesNext.and(nextLow.compare(VectorOperators.LT, high));
+    IntVector increaseSpeedStatus = okStatus.blend(mayIncreaseGear, mayIncrease)
+            .blend(increaseGearFirst, increaseFirst).blend(maximumSpeed, aboveMaximum);
+    IntVector increasedSpeed = raised.blend(speed, aboveMaximum.or(increaseFirst));
+
+    IntVector lowered = speed.sub(speedChange);
+    VectorMask<Integer> belowMinimum = lowered.compare(VectorOperators.LT, bounds.minSpeed);
+    VectorMask<Integer> reachesPrevious =
+            lowered.compare(VectorOperators.LE, previousHigh).andNot(bottom);
+    VectorMask<Integer> decreaseFirst =
+            reachesPrevious.and(lowered.compare(VectorOperators.LT, low));
+    VectorMask<Integer> mayDecrease = reachesPrevious
+            .and(previousHigh.compare(VectorOperators.GT, low))
+            .and(lowered.compare(VectorOperators.GE, low));
+    IntVector decreaseSpeedStatus = okStatus.blend(mayDecreaseGear, mayDecrease)
+            .blend(decreaseGearFirst, decreaseFirst).blend(minimumSpeed, belowMinimum);
+    IntVector decreasedSpeed = lowered.blend(speed, belowMinimum.or(decreaseFirst));
+
+    VectorMask<Integer> speedTooLow = nextLow.compare(VectorOperators.GT, speed).andNot(top);
+    IntVector increaseGearStatus = okStatus.blend(increaseSpeedFirst, speedTooLow)
+            .blend(maximumGear, top);
+    IntVector increasedGear = gear.add(1).blend(gear, top.or(speedTooLow));
+
+    VectorMask<Integer> speedTooHigh =
+            speed.compare(VectorOperators.GT, previousHigh).andNot(bottom);
+    IntVector decreaseGearStatus = okStatus.blend(decreaseSpeedFirst, speedTooHigh)
+            .blend(minimumGear, bottom);
+    IntVector decreasedGear = gear.sub(1).blend(gear, bottom.or(speedTooHigh));
+
+    VectorMask<Integer> increaseSpeed = action.compare(VectorOperators.EQ, 0);
+    VectorMask<Integer> decreaseSpeed = action.compare(VectorOperators.EQ, 1);
+    VectorMask<Integer> increaseGear = action.compare(VectorOperators.EQ, 2);
+    VectorMask<Integer> decreaseGear = action.compare(VectorOperators.EQ, 3);
+    speed.blend(increasedSpeed, increaseSpeed).blend(decreasedSpeed, decreaseSpeed)
+            .intoArray(speeds, vehicle);
+    gear.blend(increasedGear, increaseGear).blend(decreasedGear, decreaseGear)
+            .intoArray(gearBlock, offset);
+    decreaseGearStatus.blend(increaseSpeedStatus, increaseSpeed)
+            .blend(decreaseSpeedStatus, decreaseSpeed).blend(increaseGearStatus, increaseGear)
+            .intoArray(statusBlock, offset);
+  }
+}
@@ -0,0 +1,185 @@
+package vehicle;
+
+
+/**
+ * This class represents an automatic transmission built on the same speed ranges
+ * as {@link RegularManualTransmission}. Whenever the speed changes, the gear is
+ * selected for the new speed: it is kept while the speed stays in its range and
+ * otherwise moved directly to the highest gear that can run at that speed, found
+ * by a binary search over the ranges. Speed changes therefore never ask the driver
+ * to change gears first. The gear can still be changed by hand within the usual
+ * rules, as with a manual mode selector.
+ */
+public class AutomaticTransmission implements ManualTransmission {
+
+  private static final int initialGear = 1;
+  private static final int defaultSpeedChange = 1;
+
+  private final int currentSpeed;
+  private final int currentGear;
+  private final TransmissionStatus currentStatus;
+  private final GearRangeTable speedRanges;
+  private final int speedChange;
+
+  /**
+   * Constructs an AutomaticTransmission object from the speed ranges of its
+   * gears, given as l1, h1, l2, h2, ..., ln, hn.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @throws IllegalArgumentException will throw an IllegalArgumentException for any invalid inputs
+   */
+  public AutomaticTransmission(int... ranges) throws IllegalArgumentException {
+    this(new GearRangeTable(ranges));
+  }
+
+  /**
+   * Constructs an AutomaticTransmission object in its initial state
+   * for an already validated table of speed ranges.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   */
+  public AutomaticTransmission(GearRangeTable speedRanges) {
+    this(speedRanges, defaultSpeedChange);
+  }
+
+  /**
+   * Constructs an AutomaticTransmission object in its initial state whose
+   * speed changes by the given amount on every increaseSpeed or decreaseSpeed.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   * @param speedChange amount by which a single action changes the speed
+   * @throws IllegalArgumentException if the speed change is not positive
+   */
+  public AutomaticTransmission(GearRangeTable speedRanges, int speedChange)
+          throws IllegalArgumentException {
+    this(speedRanges, checkSpeedChange(speedChange), speedRanges.getMinSpeed(),
+            initialGear, TransmissionStatus.OK);
+  }
+
+  private AutomaticTransmission(GearRangeTable speedRanges, int speedChange, int speed,
+                                int gear, TransmissionStatus status) {
+    this.speedRanges = speedRanges;
+    this.speedChange = speedChange;
+    this.currentSpeed = speed;
+    this.currentGear = gear;
+    this.currentStatus = status;
+  }
+
+  @Override
+  public String getStatus() {
+    return this.currentStatus.getMessage();
+  }
+
+  @Override
+  public TransmissionStatus getTransmissionStatus() {
+    return this.currentStatus;
+  }
+
+  @Override
+  public int getSpeed() {
+    return this.currentSpeed;
+  }
+
+  @Override
+  public int getGear() {
+    return this.currentGear;
+  }
+
+  /**
+   * Increase the speed by a fixed amount and select the gear for the new speed,
+   * or remain the same at the speed limit.
+   *
+   * @return return transmission object with updated speed and gear.
+   */
+  @Override
+  public ManualTransmission increaseSpeed() {
+    return initialiseAT(TransmissionRules.changeSpeedAutomatically(speedRanges, currentSpeed,
+            currentGear, speedChange, false));
+  }
+
+  /**
+   * Increase the speed by the given amount in one step, stopping at the speed limit,
+   * and select the gear for the new speed.
+   *
+   * @param delta total increase of the speed, at least 1
+   * @return return transmission object with updated speed and gear.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  @Override
+  public ManualTransmission increaseSpeedBy(int delta) throws IllegalArgumentException {
+    return initialiseAT(TransmissionRules.changeSpeedAutomatically(speedRanges, currentSpeed,
+            currentGear, checkSpeedChange(delta), true));
+  }
+
+  /**
+   * Decrease the speed by a fixed amount and select the gear for the new speed,
+   * or remain the same at the lowest speed.
+   *
+   * @return return transmission object with updated speed and gear.
+   */
+  @Override
+  public ManualTransmission decreaseSpeed() {
+    return initialiseAT(TransmissionRules.changeSpeedAutomatically(speedRanges, currentSpeed,
+            currentGear, -(long) speedChange, false));
+  }
+
+  /**
+   * Decrease the speed by the given amount in one step, stopping at the lowest speed,
+   * and select the gear for the new speed.
+   *
+   * @param delta total decrease of the speed, at least 1
+   * @return return transmission object with updated speed and gear.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  @Override
+  public ManualTransmission decreaseSpeedBy(int delta) throws IllegalArgumentException {
+    return initialiseAT(TransmissionRules.changeSpeedAutomatically(speedRanges, currentSpeed,
+            currentGear, -(long) checkSpeedChange(delta), true));
+  }
+
+  @Override
+  public ManualTransmission increaseGear() {
+    return initialiseAT(TransmissionRules.increaseGear(speedRanges, currentSpeed, currentGear));
+  }
+
+  @Override
+  public ManualTransmission decreaseGear() {
+    return initialiseAT(TransmissionRules.decreaseGear(speedRanges, currentSpeed, currentGear));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AutomaticTransmission)) {
+      return false;
+    }
+    AutomaticTransmission other = (AutomaticTransmission) o;
+    return this.currentSpeed == other.currentSpeed
+            && this.currentGear == other.currentGear
+            && this.currentStatus == other.currentStatus
+            && this.speedChange == other.speedChange
+            && this.speedRanges.equals(other.speedRanges);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(TransmissionStateCodec.pack(this.currentSpeed, this.currentGear,
+            this.currentStatus)) * 31 + this.speedRanges.hashCode();
+  }
+
+  private ManualTransmission initialiseAT(long state) {
+    return new AutomaticTransmission(this.speedRanges, this.speedChange,
+            TransmissionStateCodec.speed(state),
+            TransmissionStateCodec.gear(state),
+            TransmissionStateCodec.status(state));
+  }
+
+  private static int checkSpeedChange(int speedChange) {
+    if (speedChange <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    return speedChange;
+  }
+}
@@ -0,0 +1,243 @@
+package vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * This class represents a transmission controlled through a queue of command batches.
+ * Clients submit batches of {@link TransmissionAction} codes; a single worker thread
+ * applies the batches in the order they were queued, each action with the same result
+ * as calling the matching method, and completes every batch with one {@link Result}
+ * holding the final state and, if asked for, the state after every action of the
+ * batch. A client therefore pays one hand-off per batch instead of one per action.
+ *
+ * <p>The queue is bounded: {@link #submit(byte[], boolean)} waits while it is full and
+ * {@link #trySubmit(byte[], boolean)} refuses the batch, so clients cannot run ahead
+ * of the worker without limit. Closing the pipeline lets the worker finish every batch
+ * queued so far; batches submitted afterwards are refused.
+ */
+public final class CommandPipeline implements AutoCloseable {
+
+  private static final Batch endOfQueue = new Batch(new byte[0], false);
+
+  private final BlockingQueue<Batch> queue;
+  private final Thread worker;
+  private volatile ManualTransmission state;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a CommandPipeline that drives the given transmission and holds at most
+   * the given number of batches waiting for the worker.
+   *
+   * @param start         transmission to start from
+   * @param queueCapacity largest number of queued batches
+   * @throws IllegalArgumentException if start is null or the capacity is not positive
+   */
+  public CommandPipeline(ManualTransmission start, int queueCapacity)
+          throws IllegalArgumentException {
+    if (start == null) {
+      throw new IllegalArgumentException("Transmission should not be null.");
+    }
+    if (queueCapacity <= 0) {
+      throw new IllegalArgumentException("Queue capacity should be positive.");
+    }
+    this.state = start;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.worker = new Thread(this::work, "transmission-pipeline");
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  /**
+   * Queue a batch of actions, waiting while the queue is full.
+   *
+   * @param actions      action codes, as in {@link TransmissionAction#getCode()}
+   * @param intermediate true to get the state after every action, false for the
+   *                     final state only
+   * @return future completed with the result of the batch.
+   * @throws IllegalArgumentException if an action code is unknown
+   * @throws IllegalStateException    if the pipeline is closed
+   * @throws InterruptedException     if interrupted while waiting for room in the queue
+   */
+  public CompletableFuture<Result> submit(byte[] actions, boolean intermediate)
+          throws IllegalArgumentException, InterruptedException {
+    Batch batch = newBatch(actions, intermediate);
+    this.queue.put(batch);
+    return queued(batch);
+  }
+
+  /**
+   * Queue a batch of actions if the queue has room.
+   *
+   * @param actions      action codes, as in {@link TransmissionAction#getCode()}
+   * @param intermediate true to get the state after every action, false for the
+   *                     final state only
+   * @return future completed with the result of the batch, or null if the queue is full.
+   * @throws IllegalArgumentException if an action code is unknown
+   * @throws IllegalStateException    if the pipeline is closed
+   */
+  public CompletableFuture<Result> trySubmit(byte[] actions, boolean intermediate)
+          throws IllegalArgumentException {
+    Batch batch = newBatch(actions, intermediate);
+    if (!this.queue.offer(batch)) {
+      return null;
+    }
+    return queued(batch);
+  }
+
+  /**
+   * Get the state of the transmission after the last batch applied so far.
+   *
+   * @return current transmission.
+   */
+  public ManualTransmission getState() {
+    return this.state;
+  }
+
+  /**
+   * Get the number of batches waiting for the worker.
+   *
+   * @return number of queued batches.
+   */
+  public int getQueuedCount() {
+    return this.queue.size();
+  }
+
+  /**
+   * Refuse new batches and wait until the worker has applied every queued batch.
+   */
+  @Override
+  public synchronized void close() {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    boolean interrupted = false;
+    while (true) {
+      try {
+        this.queue.put(endOfQueue);
+        this.worker.join();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Batch newBatch(byte[] actions, boolean intermediate) {
+    if (this.closed) {
+      throw new IllegalStateException("The pipeline is closed.");
+    }
+    FleetKernel.checkActions(actions, 0, actions.length);
+    return new Batch(actions.clone(), intermediate);
+  }
+
+  /**
+   * A batch queued behind the end of the queue is never reached by the worker, so it
+   * is refused here unless the worker has already taken it.
+   */
+  private CompletableFuture<Result> queued(Batch batch) {
+    if (this.closed && this.queue.remove(batch)) {
+      batch.result.completeExceptionally(new IllegalStateException("The pipeline is closed."));
+    }
+    return batch.result;
+  }
+
+  private void work() {
+    while (true) {
+      Batch batch;
+      try {
+        batch = this.queue.take();
+      } catch (InterruptedException e) {
+        continue;
+      }
+      if (batch == endOfQueue) {
+        break;
+      }
+      ReplayTrace trace = batch.intermediate ? new ReplayTrace(batch.actions.length) : null;
+      try {
+        ManualTransmission next = TransmissionReplay.replay(this.state, batch.actions, trace);
+        this.state = next;
+        batch.result.complete(new Result(next, trace, batch.actions.length));
+      } catch (RuntimeException e) {
+        batch.result.completeExceptionally(e);
+      }
+    }
+    List<Batch> refused = new ArrayList<>();
+    this.queue.drainTo(refused);
+    for (Batch batch : refused) {
+      batch.result.completeExceptionally(new IllegalStateException("The pipeline is closed."));
+    }
+  }
+
+  private static final class Batch {
+
+    private final byte[] actions;
+    private final boolean intermediate;
+    private final CompletableFuture<Result> result = new CompletableFuture<>();
+
+    private Batch(byte[] actions, boolean intermediate) {
+      this.actions = actions;
+      this.intermediate = intermediate;
+    }
+  }
+
+  /**
+   * This class represents the reply to one batch of a CommandPipeline.
+   */
+  public static final class Result {
+
+    private final ManualTransmission state;
+    private final ReplayTrace trace;
+    private final int actionCount;
+
+    private Result(ManualTransmission state, ReplayTrace trace, int actionCount) {
+      this.state = state;
+      this.trace = trace;
+      this.actionCount = actionCount;
+    }
+
+    /**
+     * Get the transmission after the last action of the batch.
+     *
+     * @return final state of the batch.
+     */
+    public ManualTransmission getState() {
+      return this.state;
+    }
+
+    /**
+     * Get the status after the last action of the batch.
+     *
+     * @return final status of the batch.
+     */
+    public TransmissionStatus getTransmissionStatus() {
+      return this.state.getTransmissionStatus();
+    }
+
+    /**
+     * Get the speed, gear and status after every action of the batch.
+     *
+     * @return one trace entry per action, or null if only the final state was asked for.
+     */
+    public ReplayTrace getTrace() {
+      return this.trace;
+    }
+
+    /**
+     * Get the number of actions of the batch.
+     *
+     * @return number of applied actions.
+     */
+    public int getActionCount() {
+      return this.actionCount;
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package vehicle;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * This class represents a transmission that several threads can drive at once.
+ * It follows the same rules as {@link RegularManualTransmission}, but keeps its
+ * speed, gear and status packed by {@link TransmissionStateCodec} into a single
+ * {@link AtomicLong}. Every action reads the current state, computes the next one
+ * and installs it with a compare-and-set, retrying if another thread got there
+ * first, so no action is ever lost and readers never see a half-applied change.
+ *
+ * <p>The individual getters each read the state once; use {@link #snapshot()} to
+ * get a speed, gear and status that belong together.
+ */
+public final class ConcurrentTransmission {
+
+  private static final int defaultSpeedChange = 1;
+
+  private final GearRangeTable speedRanges;
+  private final int speedChange;
+  private final AtomicLong state;
+
+  /**
+   * Constructs a ConcurrentTransmission object from the speed ranges of its
+   * gears, given as l1, h1, l2, h2, ..., ln, hn.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @throws IllegalArgumentException will throw an IllegalArgumentException for any invalid inputs
+   */
+  public ConcurrentTransmission(int... ranges) throws IllegalArgumentException {
+    this(new GearRangeTable(ranges));
+  }
+
+  /**
+   * Constructs a ConcurrentTransmission object in its initial state
+   * for an already validated table of speed ranges.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   */
+  public ConcurrentTransmission(GearRangeTable speedRanges) {
+    this(speedRanges, defaultSpeedChange);
+  }
+
+  /**
+   * Constructs a ConcurrentTransmission object in its initial state whose
+   * speed changes by the given amount on every speed action.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   * @param speedChange amount by which a single action changes the speed
+   * @throws IllegalArgumentException if the speed change is not positive
+   */
+  public ConcurrentTransmission(GearRangeTable speedRanges, int speedChange)
+          throws IllegalArgumentException {
+    if (speedChange <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    this.speedRanges = speedRanges;
+    this.speedChange = speedChange;
+    this.state = new AtomicLong(TransmissionStateCodec.initial(speedRanges));
+  }
+
+  /**
+   * Report the status of the transmission of vehicle as a formatted String.
+   *
+   * @return current status of the vehicle as a formatted string as it moves.
+   */
+  public String getStatus() {
+    return getTransmissionStatus().getMessage();
+  }
+
+  /**
+   * Report the status of the transmission of vehicle using the given message table.
+   *
+   * @param messages table of status messages
+   * @return current status of the vehicle as a message from that table.
+   */
+  public String getStatus(StatusMessages messages) {
+    return messages.getMessage(getTransmissionStatus());
+  }
+
+  /**
+   * Report the status of the transmission of vehicle as a constant.
+   *
+   * @return current status of the vehicle.
+   */
+  public TransmissionStatus getTransmissionStatus() {
+    return TransmissionStateCodec.status(this.state.get());
+  }
+
+  /**
+   * Get the current speed of the vehicle as a whole number.
+   *
+   * @return current speed of the vehicle as it moves.
+   */
+  public int getSpeed() {
+    return TransmissionStateCodec.speed(this.state.get());
+  }
+
+  /**
+   * Get the current gear of the vehicle as a whole number.
+   *
+   * @return current gear of the vehicle as it moves.
+   */
+  public int getGear() {
+    return TransmissionStateCodec.gear(this.state.get());
+  }
+
+  /**
+   * Atomically apply an action to this transmission, changing its speed, gear and
+   * status exactly as the matching method of RegularManualTransmission would.
+   *
+   * @param action action taken by the driver
+   * @return status of the transmission right after this action.
+   */
+  public TransmissionStatus step(TransmissionAction action) {
+    return step(action.getCode());
+  }
+
+  /**
+   * Atomically apply the action with the given code to this transmission.
+   *
+   * @param action code of the action, as in {@link TransmissionAction#getCode()}
+   * @return status of the transmission right after this action.
+   * @throws IllegalArgumentException if the action code is unknown
+   */
+  public TransmissionStatus step(int action) throws IllegalArgumentException {
+    long current;
+    long next;
+    do {
+      current = this.state.get();
+      next = TransmissionStateCodec.stepUnchecked(this.speedRanges, current, action,
+              this.speedChange);
+    } while (!this.state.compareAndSet(current, next));
+    return TransmissionStateCodec.status(next);
+  }
+
+  /**
+   * Atomically increase the speed by up to the given total amount without changing
+   * gears, exactly as {@link ManualTransmission#increaseSpeedBy(int)} would.
+   *
+   * @param delta total increase of the speed, at least 1
+   * @return status of the transmission right after this change.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  public TransmissionStatus increaseSpeedBy(int delta) throws IllegalArgumentException {
+    checkDelta(delta);
+    long current;
+    long next;
+    do {
+      current = this.state.get();
+      next = TransmissionRules.increaseSpeedBy(this.speedRanges,
+              TransmissionStateCodec.speed(current), TransmissionStateCodec.gear(current), delta);
+    } while (!this.state.compareAndSet(current, next));
+    return TransmissionStateCodec.status(next);
+  }
+
+  /**
+   * Atomically decrease the speed by up to the given total amount without changing
+   * gears, exactly as {@link ManualTransmission#decreaseSpeedBy(int)} would.
+   *
+   * @param delta total decrease of the speed, at least 1
+   * @return status of the transmission right after this change.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  public TransmissionStatus decreaseSpeedBy(int delta) throws IllegalArgumentException {
+    checkDelta(delta);
+    long current;
+    long next;
+    do {
+      current = this.state.get();
+      next = TransmissionRules.decreaseSpeedBy(this.speedRanges,
+              TransmissionStateCodec.speed(current), TransmissionStateCodec.gear(current), delta);
+    } while (!this.state.compareAndSet(current, next));
+    return TransmissionStateCodec.status(next);
+  }
+
+  /**
+   * Put this transmission back in the first gear at the lowest speed.
+   */
+  public void reset() {
+    this.state.set(TransmissionStateCodec.initial(this.speedRanges));
+  }
+
+  /**
+   * Take an immutable copy of the current state, read atomically.
+   *
+   * @return immutable transmission in the current state.
+   */
+  public ManualTransmission snapshot() {
+    return TransmissionStateCodec.unpackUnchecked(this.speedRanges, this.state.get(),
+            this.speedChange);
+  }
+
+  private static void checkDelta(int delta) {
+    if (delta <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package vehicle;
+
+
+/**
+ * This class represents a batch kernel that applies one action to each of many
+ * vehicles of the same model at once. The vehicles are given as primitive arrays
+ * of speeds, gears and status codes, as kept by {@link TransmissionFleet}, and
+ * every vehicle changes exactly as {@link RegularManualTransmission} would.
+ *
+ * <p>{@link #scalar()} always works. {@link #preferred()} returns a kernel that
+ * compares many vehicles per instruction with the JDK Vector API when it was
+ * built with the vector profile and the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}, and the scalar kernel otherwise.
+ * Setting the system property {@code vehicle.fleetKernel} to {@code scalar}
+ * forces the scalar kernel.
+ */
+public abstract class FleetKernel {
+
+  private static final String vectorKernel = "vehicle.VectorFleetKernel";
+  private static final FleetKernel preferred = loadPreferred();
+
+  FleetKernel() {
+  }
+
+  /**
+   * Get the kernel that steps one vehicle at a time.
+   *
+   * @return the scalar kernel.
+   */
+  public static FleetKernel scalar() {
+    return ScalarFleetKernel.instance;
+  }
+
+  /**
+   * Get the fastest kernel available in this JVM.
+   *
+   * @return the vector kernel if it can be used, the scalar kernel otherwise.
+   */
+  public static FleetKernel preferred() {
+    return preferred;
+  }
+
+  /**
+   * Get a short name of this kernel, such as scalar or vector.
+   *
+   * @return name of the kernel.
+   */
+  public abstract String getName();
+
+  /**
+   * Apply the actions of the vehicles from start (inclusive) to end (exclusive):
+   * vehicle i takes the action whose code is actions[i], and its speed, gear and
+   * status code are replaced by the result. All action codes are checked before
+   * any vehicle changes.
+   *
+   * @param speedRanges speed ranges shared by every vehicle
+   * @param speedChange amount by which a single action changes the speed
+   * @param speeds      speed of every vehicle
+   * @param gears       gear of every vehicle
+   * @param statusCodes status code of every vehicle
+   * @param actions     action code of every vehicle, as in {@link TransmissionAction#getCode()}
+   * @param start       first vehicle
+   * @param end         vehicle after the last one
+   * @throws IllegalArgumentException if an action code is unknown
+   */
+  public abstract void step(GearRangeTable speedRanges, int speedChange, int[] speeds,
+                            byte[] gears, byte[] statusCodes, byte[] actions, int start,
+                            int end) throws IllegalArgumentException;
+
+  /**
+   * Check that every action from start (inclusive) to end (exclusive) is known.
+   *
+   * @param actions action codes
+   * @param start   first vehicle
+   * @param end     vehicle after the last one
+   * @throws IllegalArgumentException if an action code is unknown
+   */
+  static void checkActions(byte[] actions, int start, int end) throws IllegalArgumentException {
+    for (int vehicle = start; vehicle < end; vehicle++) {
+      if ((actions[vehicle] & ~3) != 0) {
+        throw new IllegalArgumentException("Unknown action code " + actions[vehicle] + ".");
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getName();
+  }
+
+  private static FleetKernel loadPreferred() {
+    if ("scalar".equals(System.getProperty("vehicle.fleetKernel"))) {
+      return scalar();
+    }
+    try {
+      return (FleetKernel) Class.forName(vectorKernel).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return scalar();
+    }
+  }
+}
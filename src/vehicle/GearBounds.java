@@ -0,0 +1,41 @@
+package vehicle;
+
+
+/**
+ * This class holds the speed ranges of a {@link GearRangeTable} gathered into
+ * arrays indexed directly by gear number, together with the neighbouring bounds
+ * the transition rules compare against. Batch kernels look up the bounds of many
+ * vehicles at once by indexing these arrays with the vehicles' gears. Index 0 is
+ * unused.
+ */
+final class GearBounds {
+
+  final int gearCount;
+  final int minSpeed;
+  final int maxSpeed;
+  final int[] lowSpeeds;
+  final int[] highSpeeds;
+  final int[] nextLowSpeeds;
+  final int[] previousHighSpeeds;
+
+  /**
+   * Gather the bounds of the given speed ranges.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   */
+  GearBounds(GearRangeTable speedRanges) {
+    this.gearCount = speedRanges.getGearCount();
+    this.minSpeed = speedRanges.getMinSpeed();
+    this.maxSpeed = speedRanges.getMaxSpeed();
+    this.lowSpeeds = new int[this.gearCount + 1];
+    this.highSpeeds = new int[this.gearCount + 1];
+    this.nextLowSpeeds = new int[this.gearCount + 1];
+    this.previousHighSpeeds = new int[this.gearCount + 1];
+    for (int gear = 1; gear <= this.gearCount; gear++) {
+      this.lowSpeeds[gear] = speedRanges.getLowSpeed(gear);
+      this.highSpeeds[gear] = speedRanges.getHighSpeed(gear);
+      this.nextLowSpeeds[gear] = speedRanges.getLowSpeed(Math.min(gear + 1, this.gearCount));
+      this.previousHighSpeeds[gear] = speedRanges.getHighSpeed(Math.max(gear - 1, 1));
+    }
+  }
+}
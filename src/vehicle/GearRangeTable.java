@@ -0,0 +1,229 @@
+package vehicle;
+
+import java.util.Arrays;
+
+
+/**
+ * This class represents the validated speed ranges of every gear of a transmission.
+ * The ranges are checked once when the table is built and never change afterwards,
+ * so a single table can be shared by every transmission state of the same vehicle.
+ * A table may describe any number of gears, from a single gear to truck gearboxes.
+ * <code> For any gear [gx]: speedRange is ([lx],[hx]) </code> where
+ * <ul>
+ * <li>[lx] lowest speed of gear [gx] </li>
+ * <li>[hx] highest speed of gear [gx] </li>
+ * </ul>
+ */
+public final class GearRangeTable {
+
+  private static final int maxGearCount = 0xFFFF;
+  private static final String[] violations = {
+      "First gear's lowest speed ought to be 0.",
+      "One or more of the given speed values are negative or zero.",
+      "Lower speed should be less than or equal to that gear's higher speed.",
+      "Any gear's lower speed should be strictly less than the next gear's lower speed.",
+      "Any gear's higher speed should be strictly less than the next gear's higher speed.",
+      "The given speeds do not cover the maximumSpeedLimit range.",
+      "Given ranges shouldn't be non-overlapping.",
+      "Only adjacent-gear ranges may overlap; other ranges should not.",
+  };
+  private static final int notCovered = 5;
+  private static final int valid = violations.length;
+
+  private final int[] lowSpeeds;
+  private final int[] highSpeeds;
+  private GearBounds bounds;
+
+  /**
+   * Constructs a GearRangeTable from the speed ranges of each gear given as
+   * low/high pairs, i.e. l1, h1, l2, h2, ..., ln, hn for a transmission with n gears.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @throws IllegalArgumentException will throw an IllegalArgumentException for any invalid inputs
+   */
+  public GearRangeTable(int... ranges) throws IllegalArgumentException {
+    if (ranges == null || ranges.length == 0 || ranges.length % 2 != 0) {
+      throw new IllegalArgumentException("Speed ranges should be given as "
+              + "low/high pairs for at least one gear.");
+    }
+    if (ranges.length / 2 > maxGearCount) {
+      throw new IllegalArgumentException("A transmission supports at most "
+              + maxGearCount + " gears.");
+    }
+    int gearCount = ranges.length / 2;
+    this.lowSpeeds = new int[gearCount];
+    this.highSpeeds = new int[gearCount];
+    for (int gear = 0; gear < gearCount; gear++) {
+      this.lowSpeeds[gear] = ranges[2 * gear];
+      this.highSpeeds[gear] = ranges[2 * gear + 1];
+    }
+    validateInputs(this.lowSpeeds, this.highSpeeds);
+  }
+
+  /**
+   * Get the number of gears described by this table.
+   *
+   * @return number of gears, the highest gear number.
+   */
+  public int getGearCount() {
+    return this.lowSpeeds.length;
+  }
+
+  /**
+   * Get the lowest speed of the given gear.
+   *
+   * @param gear gear number, starting at 1
+   * @return lowest speed of that gear.
+   */
+  public int getLowSpeed(int gear) {
+    return this.lowSpeeds[gear - 1];
+  }
+
+  /**
+   * Get the highest speed of the given gear.
+   *
+   * @param gear gear number, starting at 1
+   * @return highest speed of that gear.
+   */
+  public int getHighSpeed(int gear) {
+    return this.highSpeeds[gear - 1];
+  }
+
+  /**
+   * Get the lowest speed of the vehicle, the lowest speed of the first gear.
+   *
+   * @return minimum speed of the vehicle.
+   */
+  public int getMinSpeed() {
+    return this.lowSpeeds[0];
+  }
+
+  /**
+   * Get the speed limit of the vehicle, the highest speed of the last gear.
+   *
+   * @return maximum speed of the vehicle.
+   */
+  public int getMaxSpeed() {
+    return this.highSpeeds[this.highSpeeds.length - 1];
+  }
+
+  /**
+   * Get the highest gear whose range contains the given speed. Because lower speeds
+   * increase with the gear and the ranges cover every speed of the vehicle, this is
+   * the highest gear whose lowest speed is not above the given speed, found by a
+   * binary search over the lower speeds.
+   *
+   * @param speed speed of the vehicle, between the minimum and maximum speed
+   * @return highest gear that can run at that speed.
+   * @throws IllegalArgumentException if the speed is outside the vehicle's speed range
+   */
+  public int getGearFor(int speed) throws IllegalArgumentException {
+    if (speed < getMinSpeed() || speed > getMaxSpeed()) {
+      throw new IllegalArgumentException("Speed " + speed + " is outside the range "
+              + getMinSpeed() + "-" + getMaxSpeed() + ".");
+    }
+    int index = Arrays.binarySearch(this.lowSpeeds, speed);
+    if (index >= 0) {
+      return index + 1;
+    }
+    return -index - 1;
+  }
+
+  /**
+   * Get the bounds of every gear gathered for batch kernels, built on first use.
+   * GearBounds only has final fields, so a racing first use at worst builds it twice.
+   *
+   * @return gathered bounds of this table.
+   */
+  GearBounds getBounds() {
+    GearBounds gathered = this.bounds;
+    if (gathered == null) {
+      gathered = new GearBounds(this);
+      this.bounds = gathered;
+    }
+    return gathered;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof GearRangeTable)) {
+      return false;
+    }
+    GearRangeTable other = (GearRangeTable) o;
+    return Arrays.equals(this.lowSpeeds, other.lowSpeeds)
+            && Arrays.equals(this.highSpeeds, other.highSpeeds);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(this.lowSpeeds) + Arrays.hashCode(this.highSpeeds);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("GearRangeTable[");
+    for (int gear = 0; gear < this.lowSpeeds.length; gear++) {
+      if (gear > 0) {
+        builder.append(", ");
+      }
+      builder.append(this.lowSpeeds[gear]).append('-').append(this.highSpeeds[gear]);
+    }
+    return builder.append(']').toString();
+  }
+
+  /**
+   * Checks the ranges in one pass over each gear and its next two gears. When several
+   * rules are broken, the message of the earliest rule in {@link #violations} is reported.
+   * Because lower and higher speeds must both increase with the gear, two ranges that
+   * are not adjacent overlap exactly when some gear's range reaches the lower speed
+   * of the gear two above it.
+   */
+  private static void validateInputs(int[] low, int[] high) {
+    int violation = valid;
+    if (low[0] != 0) {
+      violation = 0;
+    }
+    for (int gear = 0; gear < low.length && violation > 1; gear++) {
+      if ((gear > 0 && low[gear] <= 0) || high[gear] <= 0) {
+        violation = 1;
+      } else if (low[gear] > high[gear]) {
+        violation = Math.min(violation, 2);
+      } else if (gear + 1 < low.length && low[gear] >= low[gear + 1]) {
+        violation = Math.min(violation, 3);
+      } else if (gear + 1 < low.length && high[gear] > high[gear + 1]) {
+        violation = Math.min(violation, 4);
+      } else if (gear + 1 < low.length && low[gear + 1] > high[gear]) {
+        violation = Math.min(violation, 6);
+      } else if (gear + 2 < low.length && low[gear + 2] <= high[gear]) {
+        violation = Math.min(violation, 7);
+      }
+    }
+    if (violation > notCovered && !isCovered(low, high, low[0], high[high.length - 1])) {
+      violation = notCovered;
+    }
+    if (violation != valid) {
+      throw new IllegalArgumentException(violations[violation]);
+    }
+  }
+
+  /**
+   * Sweeps the ranges in gear order, keeping the highest speed covered so far, and
+   * reports a gap as soon as a gear starts above the speed right after it. It is
+   * only called once the lower speeds are known to increase with the gear, so the
+   * ranges are already sorted and the check takes time proportional to the number
+   * of gears, whatever the speed span.
+   */
+  private static boolean isCovered(int[] low, int[] high, int initialSpeed, int highestSpeed) {
+    long covered = (long) initialSpeed - 1;
+    for (int gear = 0; gear < low.length; gear++) {
+      if (low[gear] > covered + 1) {
+        return false;
+      }
+      covered = Math.max(covered, high[gear]);
+    }
+    return covered >= highestSpeed;
+  }
+}
@@ -0,0 +1,102 @@
+package vehicle;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+
+/**
+ * This class represents a stand-in for the link between a client and a
+ * {@link CommandPipeline}, such as a message queue or a network connection, within a
+ * single process. Every message waits for the given one-way delay on its way to the
+ * pipeline and again on its way back, spinning so that short delays are accurate,
+ * which makes the cost of a round trip visible in tests and benchmarks. A transport
+ * stands for one client connection and is meant to be used by one thread.
+ */
+public final class InProcessTransport {
+
+  private final CommandPipeline pipeline;
+  private final long delayNanos;
+  private long messageCount;
+
+  /**
+   * Constructs an InProcessTransport to the given pipeline.
+   *
+   * @param pipeline   pipeline that receives the messages
+   * @param delayNanos one-way delay of every message, in nanoseconds
+   * @throws IllegalArgumentException if pipeline is null or the delay is negative
+   */
+  public InProcessTransport(CommandPipeline pipeline, long delayNanos)
+          throws IllegalArgumentException {
+    if (pipeline == null) {
+      throw new IllegalArgumentException("Pipeline should not be null.");
+    }
+    if (delayNanos < 0) {
+      throw new IllegalArgumentException("Delay should not be negative.");
+    }
+    this.pipeline = pipeline;
+    this.delayNanos = delayNanos;
+  }
+
+  /**
+   * Send a batch of actions to the pipeline and wait for its reply.
+   *
+   * @param actions      action codes, as in {@link TransmissionAction#getCode()}
+   * @param intermediate true to get the state after every action, false for the
+   *                     final state only
+   * @return reply of the pipeline.
+   * @throws IllegalArgumentException if an action code is unknown
+   * @throws IllegalStateException    if the pipeline is closed
+   * @throws InterruptedException     if interrupted while waiting for room in the queue
+   */
+  public CommandPipeline.Result send(byte[] actions, boolean intermediate)
+          throws IllegalArgumentException, InterruptedException {
+    this.messageCount++;
+    delay();
+    CompletableFuture<CommandPipeline.Result> reply = this.pipeline.submit(actions,
+            intermediate);
+    CommandPipeline.Result result;
+    try {
+      result = reply.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+    delay();
+    return result;
+  }
+
+  /**
+   * Send a single action to the pipeline and wait for the state after it, as a
+   * client without batching would.
+   *
+   * @param action action to apply
+   * @return transmission after the action.
+   * @throws IllegalStateException if the pipeline is closed
+   * @throws InterruptedException  if interrupted while waiting for room in the queue
+   */
+  public ManualTransmission send(TransmissionAction action)
+          throws IllegalStateException, InterruptedException {
+    return send(new byte[] {action.getCode()}, false).getState();
+  }
+
+  /**
+   * Get the number of messages sent through this transport.
+   *
+   * @return number of round trips so far.
+   */
+  public long getMessageCount() {
+    return this.messageCount;
+  }
+
+  private void delay() {
+    if (this.delayNanos == 0) {
+      return;
+    }
+    long end = System.nanoTime() + this.delayNanos;
+    while (System.nanoTime() - end < 0) {
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package vehicle;
+
+
+/**
+ * This class represents a ManualTransmission that records every action it takes
+ * into {@link TransmissionMetrics}: the action, the status it ends in and how long
+ * it took. It wraps any other transmission and returns wrapped transmissions, so a
+ * whole drive keeps recording. Transmissions that are not wrapped pay nothing for
+ * instrumentation.
+ */
+public final class InstrumentedTransmission implements ManualTransmission {
+
+  private final ManualTransmission delegate;
+  private final TransmissionMetrics metrics;
+
+  private InstrumentedTransmission(ManualTransmission delegate, TransmissionMetrics metrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Wrap a transmission so that its actions are recorded into the given metrics.
+   * Without metrics the transmission is returned as it is, so instrumentation can
+   * be switched off at a single place.
+   *
+   * @param transmission transmission to record
+   * @param metrics      metrics to record into, or null for no instrumentation
+   * @return the instrumented transmission, or the given one if metrics is null.
+   */
+  public static ManualTransmission wrap(ManualTransmission transmission,
+                                        TransmissionMetrics metrics) {
+    if (metrics == null || transmission instanceof InstrumentedTransmission
+            && ((InstrumentedTransmission) transmission).metrics == metrics) {
+      return transmission;
+    }
+    return new InstrumentedTransmission(transmission, metrics);
+  }
+
+  /**
+   * Get the transmission whose actions are recorded.
+   *
+   * @return the wrapped transmission.
+   */
+  public ManualTransmission getDelegate() {
+    return this.delegate;
+  }
+
+  @Override
+  public String getStatus() {
+    return this.delegate.getStatus();
+  }
+
+  @Override
+  public TransmissionStatus getTransmissionStatus() {
+    return this.delegate.getTransmissionStatus();
+  }
+
+  @Override
+  public int getSpeed() {
+    return this.delegate.getSpeed();
+  }
+
+  @Override
+  public int getGear() {
+    return this.delegate.getGear();
+  }
+
+  @Override
+  public ManualTransmission increaseSpeed() {
+    long start = System.nanoTime();
+    return record(TransmissionAction.INCREASE_SPEED, this.delegate.increaseSpeed(), start);
+  }
+
+  @Override
+  public ManualTransmission decreaseSpeed() {
+    long start = System.nanoTime();
+    return record(TransmissionAction.DECREASE_SPEED, this.delegate.decreaseSpeed(), start);
+  }
+
+  /**
+   * Increase the speed through the wrapped transmission, recorded as a single
+   * increaseSpeed action.
+   *
+   * @param delta total increase of the speed, at least 1
+   * @return return transmission object with updated speed.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  @Override
+  public ManualTransmission increaseSpeedBy(int delta) throws IllegalArgumentException {
+    long start = System.nanoTime();
+    return record(TransmissionAction.INCREASE_SPEED, this.delegate.increaseSpeedBy(delta),
+            start);
+  }
+
+  /**
+   * Decrease the speed through the wrapped transmission, recorded as a single
+   * decreaseSpeed action.
+   *
+   * @param delta total decrease of the speed, at least 1
+   * @return return transmission object with updated speed.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  @Override
+  public ManualTransmission decreaseSpeedBy(int delta) throws IllegalArgumentException {
+    long start = System.nanoTime();
+    return record(TransmissionAction.DECREASE_SPEED, this.delegate.decreaseSpeedBy(delta),
+            start);
+  }
+
+  @Override
+  public ManualTransmission increaseGear() {
+    long start = System.nanoTime();
+    return record(TransmissionAction.INCREASE_GEAR, this.delegate.increaseGear(), start);
+  }
+
+  @Override
+  public ManualTransmission decreaseGear() {
+    long start = System.nanoTime();
+    return record(TransmissionAction.DECREASE_GEAR, this.delegate.decreaseGear(), start);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof InstrumentedTransmission)) {
+      return false;
+    }
+    return this.delegate.equals(((InstrumentedTransmission) o).delegate);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.delegate.hashCode();
+  }
+
+  private ManualTransmission record(TransmissionAction action, ManualTransmission next,
+                                    long start) {
+    long nanos = System.nanoTime() - start;
+    this.metrics.recordTransition(action, next.getTransmissionStatus(), nanos);
+    return new InstrumentedTransmission(next, this.metrics);
+  }
+}
@@ -0,0 +1,143 @@
+package vehicle;
+
+
+/**
+ * This class represents a ManualTransmission whose transitions are precomputed.
+ * When the first transmission of a vehicle is built, the result of every action
+ * from every speed and gear is stored in a dense table, and all later states share
+ * that table. Each transition is then a single table load instead of a series of
+ * comparisons against the speed ranges, while giving exactly the same speed, gear
+ * and status as {@link RegularManualTransmission}.
+ *
+ * <p>The table holds four entries for every speed and gear, so this transmission
+ * is meant for vehicles whose speed limit is at most a few thousand.
+ */
+public class LookupTableTransmission implements ManualTransmission {
+
+  private static final int maxTableSize = 1 << 22;
+  private static final int actionCount = 4;
+  private static final int statusBits = 4;
+  private static final int gearBits = 8;
+  private static final int statusMask = (1 << statusBits) - 1;
+  private static final int gearMask = (1 << gearBits) - 1;
+  private static final int speedShift = statusBits + gearBits;
+  private static final int initialGear = 1;
+  private static final int speedChange = 1;
+
+  private final GearRangeTable speedRanges;
+  private final int[] transitions;
+  private final int currentSpeed;
+  private final int currentGear;
+  private final TransmissionStatus currentStatus;
+
+  /**
+   * Constructs a LookupTableTransmission object from the speed ranges of its
+   * gears, given as l1, h1, l2, h2, ..., ln, hn.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @throws IllegalArgumentException will throw an IllegalArgumentException for any invalid
+   *                                  inputs, or if the speed range is too wide for a table
+   */
+  public LookupTableTransmission(int... ranges) throws IllegalArgumentException {
+    this(new GearRangeTable(ranges));
+  }
+
+  /**
+   * Constructs a LookupTableTransmission object in its initial state
+   * for an already validated table of speed ranges.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   * @throws IllegalArgumentException if the speed range is too wide for a table
+   */
+  public LookupTableTransmission(GearRangeTable speedRanges) throws IllegalArgumentException {
+    this(speedRanges, buildTransitions(speedRanges), speedRanges.getMinSpeed(),
+            initialGear, TransmissionStatus.OK);
+  }
+
+  private LookupTableTransmission(GearRangeTable speedRanges, int[] transitions,
+                                  int speed, int gear, TransmissionStatus status) {
+    this.speedRanges = speedRanges;
+    this.transitions = transitions;
+    this.currentSpeed = speed;
+    this.currentGear = gear;
+    this.currentStatus = status;
+  }
+
+  @Override
+  public String getStatus() {
+    return this.currentStatus.getMessage();
+  }
+
+  @Override
+  public TransmissionStatus getTransmissionStatus() {
+    return this.currentStatus;
+  }
+
+  @Override
+  public int getSpeed() {
+    return this.currentSpeed;
+  }
+
+  @Override
+  public int getGear() {
+    return this.currentGear;
+  }
+
+  @Override
+  public ManualTransmission increaseSpeed() {
+    return transition(TransmissionAction.INCREASE_SPEED);
+  }
+
+  @Override
+  public ManualTransmission decreaseSpeed() {
+    return transition(TransmissionAction.DECREASE_SPEED);
+  }
+
+  @Override
+  public ManualTransmission increaseGear() {
+    return transition(TransmissionAction.INCREASE_GEAR);
+  }
+
+  @Override
+  public ManualTransmission decreaseGear() {
+    return transition(TransmissionAction.DECREASE_GEAR);
+  }
+
+  private ManualTransmission transition(TransmissionAction action) {
+    int entry = this.transitions[index(this.speedRanges, this.currentSpeed,
+            this.currentGear, action.getCode())];
+    return new LookupTableTransmission(this.speedRanges, this.transitions,
+            entry >>> speedShift, (entry >>> statusBits) & gearMask,
+            TransmissionStatus.fromCode(entry & statusMask));
+  }
+
+  private static int index(GearRangeTable speedRanges, int speed, int gear, int action) {
+    return ((speed - speedRanges.getMinSpeed()) * speedRanges.getGearCount()
+            + gear - initialGear) * actionCount + action;
+  }
+
+  private static int[] buildTransitions(GearRangeTable speedRanges) {
+    int minSpeed = speedRanges.getMinSpeed();
+    int maxSpeed = speedRanges.getMaxSpeed();
+    int gearCount = speedRanges.getGearCount();
+    long size = ((long) maxSpeed - minSpeed + 1) * gearCount * actionCount;
+    if (size > maxTableSize || gearCount > gearMask) {
+      throw new IllegalArgumentException("The given speed range is too wide "
+              + "for a lookup table.");
+    }
+    int[] transitions = new int[(int) size];
+    for (int speed = minSpeed; speed <= maxSpeed; speed++) {
+      for (int gear = initialGear; gear <= gearCount; gear++) {
+        for (int action = 0; action < actionCount; action++) {
+          long state = TransmissionRules.apply(speedRanges, speed, gear, action,
+                  speedChange);
+          transitions[index(speedRanges, speed, gear, action)] =
+                  (TransmissionStateCodec.speed(state) << speedShift)
+                          | (TransmissionStateCodec.gear(state) << statusBits)
+                          | TransmissionStateCodec.statusCode(state);
+        }
+      }
+    }
+    return transitions;
+  }
+}
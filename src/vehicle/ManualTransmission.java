@@ -6,7 +6,8 @@ package vehicle;
  * by an actual vehicle.An actual vehicle lets its driver change the speed
  * (using the gas pedal) and change gears (using the stick shift)
  * and presents the results of the driver's actions as a status.
- * It takes the speed ranges for the 5 gears as two integral numbers each: low [lx] and high [hx].
+ * It takes the speed ranges for each of its gears as two integral numbers each:
+ * low [lx] and high [hx].
  * <code> For any gear [gx]: speedRange is ([lx],[hx]) </code> where
  * <ul>
  * <li>[lx] lowest speed of  gear [gx] </li>
@@ -22,6 +23,26 @@ public interface ManualTransmission {
    */
   String getStatus();
 
+  /**
+   * Report the status of the transmission of vehicle as a constant that can be
+   * compared or switched on instead of the formatted String.
+   *
+   * @return current status of the vehicle, whose message is the one returned by getStatus.
+   */
+  TransmissionStatus getTransmissionStatus();
+
+  /**
+   * Report the status of the transmission of vehicle using the given message table,
+   * for example to show it in another language. The message is only looked up when
+   * this method is called.
+   *
+   * @param messages table of status messages
+   * @return current status of the vehicle as a message from that table.
+   */
+  default String getStatus(StatusMessages messages) {
+    return messages.getMessage(getTransmissionStatus());
+  }
+
 
   /**
    * Get the current speed of the vehicle as a whole number.
@@ -52,6 +73,70 @@ public interface ManualTransmission {
    */
   ManualTransmission decreaseSpeed();
 
+  /**
+   * Increase the speed by up to the given total amount without changing gears,
+   * stopping at the furthest speed allowed in the current gear. The resulting
+   * status is the one the last single speed change would report.
+   *
+   * <p>The default implementation calls {@link #increaseSpeed()} until the total
+   * change would exceed delta or the speed stops changing. Implementations may
+   * override it with a faster equivalent.
+   *
+   * @param delta total increase of the speed, at least 1
+   * @return return transmission object with updated speed.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  default ManualTransmission increaseSpeedBy(int delta) throws IllegalArgumentException {
+    if (delta <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    ManualTransmission current = this;
+    int remaining = delta;
+    while (true) {
+      ManualTransmission next = current.increaseSpeed();
+      int change = next.getSpeed() - current.getSpeed();
+      if (change == 0 || change == remaining) {
+        return next;
+      } else if (change > remaining) {
+        return current;
+      }
+      remaining -= change;
+      current = next;
+    }
+  }
+
+  /**
+   * Decrease the speed by up to the given total amount without changing gears,
+   * stopping at the lowest speed allowed in the current gear. The resulting
+   * status is the one the last single speed change would report.
+   *
+   * <p>The default implementation calls {@link #decreaseSpeed()} until the total
+   * change would exceed delta or the speed stops changing. Implementations may
+   * override it with a faster equivalent.
+   *
+   * @param delta total decrease of the speed, at least 1
+   * @return return transmission object with updated speed.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  default ManualTransmission decreaseSpeedBy(int delta) throws IllegalArgumentException {
+    if (delta <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    ManualTransmission current = this;
+    int remaining = delta;
+    while (true) {
+      ManualTransmission next = current.decreaseSpeed();
+      int change = current.getSpeed() - next.getSpeed();
+      if (change == 0 || change == remaining) {
+        return next;
+      } else if (change > remaining) {
+        return current;
+      }
+      remaining -= change;
+      current = next;
+    }
+  }
+
   /**
    * If permitted, increase the gear by one or stay at the same gear.
    *
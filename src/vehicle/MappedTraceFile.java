@@ -0,0 +1,223 @@
+package vehicle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * This class gives random access to a session recorded by {@link MappedTraceWriter}.
+ * The records are mapped read-only into memory in segments, so that files larger
+ * than a single buffer can be read, and the state after any step is found by
+ * reading one record: seeking does not depend on the length of the session and
+ * nothing is copied into the heap. The mapped segments stay valid until they are
+ * garbage collected, even after the file is closed.
+ */
+public final class MappedTraceFile implements Closeable {
+
+  private static final int defaultSegmentBytes = 1 << 30;
+
+  private final FileChannel channel;
+  private final GearRangeTable speedRanges;
+  private final int speedChange;
+  private final long recordCount;
+  private final int segmentShift;
+  private final long segmentMask;
+  private final MappedByteBuffer[] segments;
+
+  private MappedTraceFile(FileChannel channel, int segmentBytes) throws IOException {
+    this.channel = channel;
+    ByteBuffer fixed = readFully(MappedTraceWriter.fixedHeaderBytes, 0);
+    if (fixed.getInt() != MappedTraceWriter.magic) {
+      throw new IOException("The file does not hold a mapped transmission trace.");
+    }
+    byte traceVersion = fixed.get();
+    if (traceVersion != MappedTraceWriter.version) {
+      throw new IOException("Unsupported trace version " + traceVersion + ".");
+    }
+    fixed.position(fixed.position() + 3);
+    this.speedChange = fixed.getInt();
+    int gearCount = fixed.getInt();
+    if (this.speedChange <= 0 || gearCount <= 0 || gearCount > 0xFFFF) {
+      throw new IOException("The trace header is corrupt.");
+    }
+    ByteBuffer rangeBytes = readFully(2 * Integer.BYTES * gearCount,
+            MappedTraceWriter.fixedHeaderBytes);
+    int[] ranges = new int[2 * gearCount];
+    for (int i = 0; i < ranges.length; i++) {
+      ranges[i] = rangeBytes.getInt();
+    }
+    try {
+      this.speedRanges = new GearRangeTable(ranges);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("The trace holds invalid speed ranges.", e);
+    }
+    long headerBytes = MappedTraceWriter.fixedHeaderBytes + (long) rangeBytes.capacity();
+    this.recordCount = (channel.size() - headerBytes) / MappedTraceWriter.recordBytes;
+    if (this.recordCount <= 0) {
+      throw new IOException("The trace holds no starting state.");
+    }
+    this.segmentShift = Integer.numberOfTrailingZeros(segmentBytes / MappedTraceWriter.recordBytes);
+    this.segmentMask = (1L << this.segmentShift) - 1;
+    int segmentCount = (int) ((this.recordCount + this.segmentMask) >>> this.segmentShift);
+    this.segments = new MappedByteBuffer[segmentCount];
+    for (int segment = 0; segment < segmentCount; segment++) {
+      long first = (long) segment << this.segmentShift;
+      long length = Math.min(this.segmentMask + 1, this.recordCount - first)
+              * MappedTraceWriter.recordBytes;
+      this.segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY,
+              headerBytes + first * MappedTraceWriter.recordBytes, length);
+    }
+  }
+
+  /**
+   * Opens and maps the given trace file.
+   *
+   * @param path file written by {@link MappedTraceWriter}
+   * @return mapped trace of that file.
+   * @throws IOException if the file cannot be read or does not hold a trace
+   */
+  public static MappedTraceFile open(Path path) throws IOException {
+    return open(path, defaultSegmentBytes);
+  }
+
+  /**
+   * Opens the given trace file and maps it in segments of the given size.
+   *
+   * @param path         file written by {@link MappedTraceWriter}
+   * @param segmentBytes size of each mapped segment, a power of two of at least eight
+   *                     bytes and at most 1 GiB
+   * @return mapped trace of that file.
+   * @throws IOException              if the file cannot be read or does not hold a trace
+   * @throws IllegalArgumentException if the segment size is not supported
+   */
+  public static MappedTraceFile open(Path path, int segmentBytes)
+          throws IOException, IllegalArgumentException {
+    if (segmentBytes < MappedTraceWriter.recordBytes || segmentBytes > defaultSegmentBytes
+            || Integer.bitCount(segmentBytes) != 1) {
+      throw new IllegalArgumentException("Segment size should be a power of two between "
+              + MappedTraceWriter.recordBytes + " and " + defaultSegmentBytes + " bytes.");
+    }
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return new MappedTraceFile(channel, segmentBytes);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Get the speed ranges of the recorded vehicle.
+   *
+   * @return validated speed ranges of every gear.
+   */
+  public GearRangeTable getSpeedRanges() {
+    return this.speedRanges;
+  }
+
+  /**
+   * Get the amount by which a single action changed the speed.
+   *
+   * @return speed change of the recorded transmission.
+   */
+  public int getSpeedChange() {
+    return this.speedChange;
+  }
+
+  /**
+   * Get the number of actions recorded after the starting state.
+   *
+   * @return number of steps.
+   */
+  public long getStepCount() {
+    return this.recordCount - 1;
+  }
+
+  /**
+   * Get the speed after the given step.
+   *
+   * @param step number of actions applied, 0 for the starting state
+   * @return speed of the vehicle.
+   */
+  public int getSpeed(long step) {
+    return TransmissionStateCodec.speed(record(step));
+  }
+
+  /**
+   * Get the gear after the given step.
+   *
+   * @param step number of actions applied, 0 for the starting state
+   * @return gear of the vehicle.
+   */
+  public int getGear(long step) {
+    return TransmissionStateCodec.gear(record(step));
+  }
+
+  /**
+   * Get the status code after the given step.
+   *
+   * @param step number of actions applied, 0 for the starting state
+   * @return status code, as in {@link TransmissionStatus#getCode()}.
+   */
+  public int getStatusCode(long step) {
+    return TransmissionStateCodec.statusCode(record(step));
+  }
+
+  /**
+   * Get the action applied at the given step.
+   *
+   * @param step number of actions applied, from 1 to the step count
+   * @return action that led to that step.
+   * @throws IndexOutOfBoundsException if the step is the starting state or not recorded
+   */
+  public TransmissionAction getAction(long step) throws IndexOutOfBoundsException {
+    if (step == 0) {
+      throw new IndexOutOfBoundsException("No action leads to the starting state.");
+    }
+    return TransmissionAction.fromCode((int) (record(step) >>> MappedTraceWriter.actionShift)
+            & 0xFF);
+  }
+
+  /**
+   * Rebuild the transmission after the given step.
+   *
+   * @param step number of actions applied, 0 for the starting state
+   * @return transmission in the recorded state.
+   * @throws IndexOutOfBoundsException if the step is not recorded
+   */
+  public ManualTransmission stateAt(long step) throws IndexOutOfBoundsException {
+    long state = record(step);
+    return new RegularManualTransmission(this.speedRanges, this.speedChange,
+            TransmissionStateCodec.speed(state), TransmissionStateCodec.gear(state),
+            TransmissionStateCodec.status(state));
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  private long record(long step) {
+    if (step < 0 || step >= this.recordCount) {
+      throw new IndexOutOfBoundsException("Step " + step + " is outside the "
+              + getStepCount() + " recorded steps.");
+    }
+    return this.segments[(int) (step >>> this.segmentShift)]
+            .getLong((int) (step & this.segmentMask) * MappedTraceWriter.recordBytes);
+  }
+
+  private ByteBuffer readFully(int length, long position) throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate(length);
+    while (bytes.hasRemaining()) {
+      if (this.channel.read(bytes, position + bytes.position()) < 0) {
+        throw new IOException("The trace header is truncated.");
+      }
+    }
+    return bytes.flip();
+  }
+}
@@ -0,0 +1,145 @@
+package vehicle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * This class records a {@link RegularManualTransmission} session into a trace file
+ * with fixed-width records, which {@link MappedTraceFile} can later map into memory
+ * and seek in directly. The file starts with a header holding the speed ranges and
+ * speed change of the vehicle, followed by one eight byte record per state: the
+ * starting state first, then the state after every action. A record is the state
+ * packed by {@link TransmissionStateCodec} with the action code in its spare byte.
+ */
+public final class MappedTraceWriter implements Closeable {
+
+  static final int magic = 0x4D54544D;
+  static final byte version = 1;
+  static final int fixedHeaderBytes = 16;
+  static final int recordBytes = Long.BYTES;
+  static final int actionShift = 24;
+  private static final int bufferSize = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private long stepCount;
+  private boolean closed;
+
+  /**
+   * Creates or truncates the given file and records the starting state of the session.
+   *
+   * @param path  file receiving the trace
+   * @param start state the session starts from
+   * @throws IOException if the file cannot be written
+   */
+  public MappedTraceWriter(Path path, RegularManualTransmission start) throws IOException {
+    GearRangeTable speedRanges = start.getSpeedRanges();
+    int gearCount = speedRanges.getGearCount();
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    this.buffer = ByteBuffer.allocateDirect(
+            Math.max(bufferSize, fixedHeaderBytes + 2 * Integer.BYTES * gearCount));
+    this.buffer.putInt(magic).put(version).put(new byte[3])
+            .putInt(start.getSpeedChange()).putInt(gearCount);
+    for (int gear = 1; gear <= gearCount; gear++) {
+      this.buffer.putInt(speedRanges.getLowSpeed(gear)).putInt(speedRanges.getHighSpeed(gear));
+    }
+    putRecord(0, start.getSpeed(), start.getGear(), start.getTransmissionStatus().getCode());
+  }
+
+  /**
+   * Apply the action to the transmission and record the resulting state.
+   *
+   * @param current transmission before the action
+   * @param action  action to apply
+   * @return transmission after the action.
+   * @throws IOException if the trace cannot be written
+   */
+  public ManualTransmission apply(ManualTransmission current, TransmissionAction action)
+          throws IOException {
+    ManualTransmission next = action.apply(current);
+    write(action.getCode(), next.getSpeed(), next.getGear(),
+            next.getTransmissionStatus().getCode());
+    return next;
+  }
+
+  /**
+   * Record every step of a replayed drive cycle.
+   *
+   * @param actions action codes that were replayed
+   * @param trace   trace filled by {@link TransmissionReplay} for those actions
+   * @throws IOException              if the trace cannot be written
+   * @throws IllegalArgumentException if the trace does not hold one step per action
+   */
+  public void write(byte[] actions, ReplayTrace trace)
+          throws IOException, IllegalArgumentException {
+    if (trace.length() != actions.length) {
+      throw new IllegalArgumentException("The trace holds " + trace.length()
+              + " steps but there are " + actions.length + " actions.");
+    }
+    for (int step = 0; step < actions.length; step++) {
+      write(actions[step], trace.getSpeed(step), trace.getGear(step),
+              trace.getStatusCode(step));
+    }
+  }
+
+  /**
+   * Record the state after one action.
+   *
+   * @param action     code of the applied action
+   * @param speed      speed after the action
+   * @param gear       gear after the action
+   * @param statusCode status code after the action
+   * @throws IOException if the trace cannot be written
+   */
+  public void write(int action, int speed, int gear, int statusCode) throws IOException {
+    if (this.closed) {
+      throw new IOException("The trace writer is closed.");
+    }
+    putRecord(action, speed, gear, statusCode);
+    this.stepCount++;
+  }
+
+  /**
+   * Get the number of actions recorded so far.
+   *
+   * @return number of steps after the starting state.
+   */
+  public long getStepCount() {
+    return this.stepCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    try {
+      drain();
+    } finally {
+      this.closed = true;
+      this.channel.close();
+    }
+  }
+
+  private void putRecord(int action, int speed, int gear, int statusCode) throws IOException {
+    if (this.buffer.remaining() < recordBytes) {
+      drain();
+    }
+    this.buffer.putLong(TransmissionStateCodec.pack(speed, gear, statusCode)
+            | (long) (action & 0xFF) << actionShift);
+  }
+
+  private void drain() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+}
@@ -0,0 +1,190 @@
+package vehicle;
+
+
+/**
+ * This class represents a manual transmission that changes in place. It follows
+ * the same rules as {@link RegularManualTransmission}, but every action updates
+ * the speed, gear and status of this object instead of returning a new one, so
+ * that long simulation loops create no garbage. An immutable ManualTransmission
+ * can be taken at any point with {@link #snapshot()}.
+ *
+ * <p>Objects of this class are not thread-safe.
+ */
+public final class MutableManualTransmission {
+
+  private static final int initialGear = 1;
+  private static final int defaultSpeedChange = 1;
+
+  private final GearRangeTable speedRanges;
+  private final int speedChange;
+  private int currentSpeed;
+  private int currentGear;
+  private TransmissionStatus currentStatus;
+
+  /**
+   * Constructs a MutableManualTransmission object from the speed ranges of its
+   * gears, given as l1, h1, l2, h2, ..., ln, hn.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @throws IllegalArgumentException will throw an IllegalArgumentException for any invalid inputs
+   */
+  public MutableManualTransmission(int... ranges) throws IllegalArgumentException {
+    this(new GearRangeTable(ranges));
+  }
+
+  /**
+   * Constructs a MutableManualTransmission object in its initial state
+   * for an already validated table of speed ranges.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   */
+  public MutableManualTransmission(GearRangeTable speedRanges) {
+    this(speedRanges, defaultSpeedChange);
+  }
+
+  /**
+   * Constructs a MutableManualTransmission object in its initial state whose
+   * speed changes by the given amount on every speed action.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   * @param speedChange amount by which a single action changes the speed
+   * @throws IllegalArgumentException if the speed change is not positive
+   */
+  public MutableManualTransmission(GearRangeTable speedRanges, int speedChange)
+          throws IllegalArgumentException {
+    if (speedChange <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    this.speedRanges = speedRanges;
+    this.speedChange = speedChange;
+    reset();
+  }
+
+  /**
+   * Report the status of the transmission of vehicle as a formatted String.
+   *
+   * @return current status of the vehicle as a formatted string as it moves.
+   */
+  public String getStatus() {
+    return this.currentStatus.getMessage();
+  }
+
+  /**
+   * Report the status of the transmission of vehicle using the given message table.
+   *
+   * @param messages table of status messages
+   * @return current status of the vehicle as a message from that table.
+   */
+  public String getStatus(StatusMessages messages) {
+    return messages.getMessage(this.currentStatus);
+  }
+
+  /**
+   * Report the status of the transmission of vehicle as a constant.
+   *
+   * @return current status of the vehicle.
+   */
+  public TransmissionStatus getTransmissionStatus() {
+    return this.currentStatus;
+  }
+
+  /**
+   * Get the current speed of the vehicle as a whole number.
+   *
+   * @return current speed of the vehicle as it moves.
+   */
+  public int getSpeed() {
+    return this.currentSpeed;
+  }
+
+  /**
+   * Get the current gear of the vehicle as a whole number.
+   *
+   * @return current gear of the vehicle as it moves.
+   */
+  public int getGear() {
+    return this.currentGear;
+  }
+
+  /**
+   * Apply an action to this transmission, changing its speed, gear and status
+   * exactly as the matching method of RegularManualTransmission would.
+   *
+   * @param action action taken by the driver
+   * @return status of the transmission after the action.
+   */
+  public TransmissionStatus step(TransmissionAction action) {
+    return step(action.getCode());
+  }
+
+  /**
+   * Apply the action with the given code to this transmission.
+   *
+   * @param action code of the action, as in {@link TransmissionAction#getCode()}
+   * @return status of the transmission after the action.
+   * @throws IllegalArgumentException if the action code is unknown
+   */
+  public TransmissionStatus step(int action) throws IllegalArgumentException {
+    return update(TransmissionRules.apply(this.speedRanges, this.currentSpeed,
+            this.currentGear, action, this.speedChange));
+  }
+
+  /**
+   * Increase the speed by up to the given total amount without changing gears,
+   * exactly as {@link ManualTransmission#increaseSpeedBy(int)} would.
+   *
+   * @param delta total increase of the speed, at least 1
+   * @return status of the transmission after the change.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  public TransmissionStatus increaseSpeedBy(int delta) throws IllegalArgumentException {
+    if (delta <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    return update(TransmissionRules.increaseSpeedBy(this.speedRanges, this.currentSpeed,
+            this.currentGear, delta));
+  }
+
+  /**
+   * Decrease the speed by up to the given total amount without changing gears,
+   * exactly as {@link ManualTransmission#decreaseSpeedBy(int)} would.
+   *
+   * @param delta total decrease of the speed, at least 1
+   * @return status of the transmission after the change.
+   * @throws IllegalArgumentException if delta is not positive
+   */
+  public TransmissionStatus decreaseSpeedBy(int delta) throws IllegalArgumentException {
+    if (delta <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    return update(TransmissionRules.decreaseSpeedBy(this.speedRanges, this.currentSpeed,
+            this.currentGear, delta));
+  }
+
+  /**
+   * Put this transmission back in the first gear at the lowest speed.
+   */
+  public void reset() {
+    this.currentSpeed = this.speedRanges.getMinSpeed();
+    this.currentGear = initialGear;
+    this.currentStatus = TransmissionStatus.OK;
+  }
+
+  /**
+   * Take an immutable copy of the current state. Later actions on this object
+   * do not change the returned transmission.
+   *
+   * @return immutable transmission in the current state.
+   */
+  public ManualTransmission snapshot() {
+    return new RegularManualTransmission(this.speedRanges, this.speedChange,
+            this.currentSpeed, this.currentGear, this.currentStatus);
+  }
+
+  private TransmissionStatus update(long state) {
+    this.currentSpeed = TransmissionStateCodec.speed(state);
+    this.currentGear = TransmissionStateCodec.gear(state);
+    this.currentStatus = TransmissionStateCodec.status(state);
+    return this.currentStatus;
+  }
+}
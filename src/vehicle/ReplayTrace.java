@@ -0,0 +1,120 @@
+package vehicle;
+
+
+/**
+ * This class represents the recorded states of a replayed drive cycle. For every
+ * action of the cycle it holds the speed, gear and status code the transmission
+ * had right after that action, in primitive arrays, so that long replays can be
+ * traced without keeping one transmission object per step. A trace can be reused
+ * for several replays; each replay overwrites the previous one.
+ */
+public final class ReplayTrace {
+
+  private final int[] speeds;
+  private final int[] gears;
+  private final byte[] statusCodes;
+  private int length;
+
+  /**
+   * Constructs an empty trace able to hold the given number of steps.
+   *
+   * @param capacity largest number of actions that can be traced
+   * @throws IllegalArgumentException if the capacity is negative
+   */
+  public ReplayTrace(int capacity) throws IllegalArgumentException {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Trace capacity should not be negative.");
+    }
+    this.speeds = new int[capacity];
+    this.gears = new int[capacity];
+    this.statusCodes = new byte[capacity];
+  }
+
+  /**
+   * Get the largest number of actions this trace can hold.
+   *
+   * @return capacity of the trace.
+   */
+  public int capacity() {
+    return this.speeds.length;
+  }
+
+  /**
+   * Get the number of actions recorded by the last replay.
+   *
+   * @return number of recorded steps.
+   */
+  public int length() {
+    return this.length;
+  }
+
+  /**
+   * Get the speed right after the given step.
+   *
+   * @param step index of the action, from 0 to length - 1
+   * @return speed after that action.
+   */
+  public int getSpeed(int step) {
+    return this.speeds[checkStep(step)];
+  }
+
+  /**
+   * Get the gear right after the given step.
+   *
+   * @param step index of the action, from 0 to length - 1
+   * @return gear after that action.
+   */
+  public int getGear(int step) {
+    return this.gears[checkStep(step)];
+  }
+
+  /**
+   * Get the status code right after the given step.
+   *
+   * @param step index of the action, from 0 to length - 1
+   * @return status code after that action, as in {@link TransmissionStatus#getCode()}.
+   */
+  public byte getStatusCode(int step) {
+    return this.statusCodes[checkStep(step)];
+  }
+
+  /**
+   * Get the status right after the given step.
+   *
+   * @param step index of the action, from 0 to length - 1
+   * @return status after that action.
+   */
+  public TransmissionStatus getTransmissionStatus(int step) {
+    return TransmissionStatus.fromCode(getStatusCode(step));
+  }
+
+  /**
+   * Record the state after the given step.
+   *
+   * @param step   index of the action
+   * @param speed  speed after the action
+   * @param gear   gear after the action
+   * @param status status code after the action
+   */
+  void record(int step, int speed, int gear, int status) {
+    this.speeds[step] = speed;
+    this.gears[step] = gear;
+    this.statusCodes[step] = (byte) status;
+    this.length = step + 1;
+  }
+
+  /**
+   * Forget the previous replay.
+   */
+  void clear() {
+    this.length = 0;
+  }
+
+  private int checkStep(int step) {
+    if (step < 0 || step >= this.length) {
+      throw new IndexOutOfBoundsException("Step " + step + " is outside the "
+              + this.length + " recorded steps.");
+    }
+    return step;
+  }
+}
@@ -0,0 +1,108 @@
+package vehicle;
+
+
+/**
+ * This class steps a batch of vehicles one at a time, comparing each vehicle's
+ * speed against the gathered bounds of its gear.
+ */
+final class ScalarFleetKernel extends FleetKernel {
+
+  static final ScalarFleetKernel instance = new ScalarFleetKernel();
+
+  private static final byte ok = TransmissionStatus.OK.getCode();
+
+  private ScalarFleetKernel() {
+  }
+
+  @Override
+  public String getName() {
+    return "scalar";
+  }
+
+  @Override
+  public void step(GearRangeTable speedRanges, int speedChange, int[] speeds, byte[] gears,
+                   byte[] statusCodes, byte[] actions, int start, int end)
+          throws IllegalArgumentException {
+    checkActions(actions, start, end);
+    stepChecked(speedRanges.getBounds(), speedChange, speeds, gears, statusCodes, actions,
+            start, end);
+  }
+
+  /**
+   * Step vehicles whose actions are already known to be valid.
+   *
+   * @param bounds      gathered bounds of the speed ranges
+   * @param speedChange amount by which a single action changes the speed
+   * @param speeds      speed of every vehicle
+   * @param gears       gear of every vehicle
+   * @param statusCodes status code of every vehicle
+   * @param actions     action code of every vehicle
+   * @param start       first vehicle
+   * @param end         vehicle after the last one
+   */
+  static void stepChecked(GearBounds bounds, int speedChange, int[] speeds, byte[] gears,
+                          byte[] statusCodes, byte[] actions, int start, int end) {
+    for (int vehicle = start; vehicle < end; vehicle++) {
+      int speed = speeds[vehicle];
+      int gear = gears[vehicle];
+      byte status = ok;
+      switch (actions[vehicle]) {
+        case 0: {
+          int updatedSpeed = speed + speedChange;
+          int nextLow = bounds.nextLowSpeeds[gear];
+          boolean top = gear == bounds.gearCount;
+          if (speed > bounds.maxSpeed - speedChange) {
+            status = TransmissionStatus.MAXIMUM_SPEED.getCode();
+          } else if (updatedSpeed >= nextLow && updatedSpeed > bounds.highSpeeds[gear] && !top) {
+            status = TransmissionStatus.INCREASE_GEAR_FIRST.getCode();
+          } else {
+            if (updatedSpeed >= nextLow && nextLow < bounds.highSpeeds[gear] && !top) {
+              status = TransmissionStatus.MAY_INCREASE_GEAR.getCode();
+            }
+            speed = updatedSpeed;
+          }
+          break;
+        }
+        case 1: {
+          int updatedSpeed = speed - speedChange;
+          int previousHigh = bounds.previousHighSpeeds[gear];
+          int currentLow = bounds.lowSpeeds[gear];
+          boolean bottom = gear == 1;
+          if (updatedSpeed < bounds.minSpeed) {
+            status = TransmissionStatus.MINIMUM_SPEED.getCode();
+          } else if (updatedSpeed <= previousHigh && updatedSpeed < currentLow && !bottom) {
+            status = TransmissionStatus.DECREASE_GEAR_FIRST.getCode();
+          } else {
+            if (updatedSpeed <= previousHigh && previousHigh > currentLow
+                    && updatedSpeed >= currentLow && !bottom) {
+              status = TransmissionStatus.MAY_DECREASE_GEAR.getCode();
+            }
+            speed = updatedSpeed;
+          }
+          break;
+        }
+        case 2:
+          if (gear == bounds.gearCount) {
+            status = TransmissionStatus.MAXIMUM_GEAR.getCode();
+          } else if (bounds.nextLowSpeeds[gear] > speed) {
+            status = TransmissionStatus.INCREASE_SPEED_FIRST.getCode();
+          } else {
+            gear++;
+          }
+          break;
+        default:
+          if (gear == 1) {
+            status = TransmissionStatus.MINIMUM_GEAR.getCode();
+          } else if (speed > bounds.previousHighSpeeds[gear]) {
+            status = TransmissionStatus.DECREASE_SPEED_FIRST.getCode();
+          } else {
+            gear--;
+          }
+          break;
+      }
+      speeds[vehicle] = speed;
+      gears[vehicle] = (byte) gear;
+      statusCodes[vehicle] = status;
+    }
+  }
+}
@@ -0,0 +1,309 @@
+package vehicle;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * This class answers reachability and shortest-path questions about the states of
+ * one transmission configuration. A state is a speed and a gear; the actions
+ * leading out of it are found by applying the transition rules of
+ * {@link RegularManualTransmission}, so the state graph is never built explicitly.
+ *
+ * <p>The first query from a given state runs a breadth-first search from it and
+ * keeps the result as one row of a lazily filled all-pairs matrix. Each entry of
+ * a row packs the distance to a state together with the last action on a shortest
+ * path to it into a single int, so a row costs four bytes per state and later
+ * queries from the same state take constant time, or time proportional to the
+ * path length when the path itself is asked for. Every action moves the state by
+ * one step in speed or gear, so the state before the last action follows from the
+ * action alone and no predecessor needs to be stored.
+ *
+ * <p>The cached rows are bounded by a byte budget, 64 MiB unless another one is
+ * given; once it is spent, the least recently used row is dropped and computed
+ * again if its source is queried later. Configurations of up to 4096 states, such
+ * as a five-gear vehicle with speeds up to 818, fit the whole matrix in the default
+ * budget. Every configuration gets at least one row, whatever the budget.
+ */
+public final class ShiftSolver {
+
+  private static final int maxStates = 1 << 20;
+  private static final int actionCount = 4;
+  private static final int actionBits = 2;
+  private static final int actionMask = (1 << actionBits) - 1;
+  private static final int unreachable = -1;
+  private static final int initialGear = 1;
+  private static final int defaultSpeedChange = 1;
+  private static final long defaultCacheBytes = 64L << 20;
+
+  private final GearRangeTable speedRanges;
+  private final int speedChange;
+  private final int minSpeed;
+  private final int gearCount;
+  private final int stateCount;
+  private final int maxCachedRows;
+  private final Map<Integer, int[]> rows;
+  private int[] queue;
+
+  /**
+   * Constructs a ShiftSolver for transmissions with the given speed ranges whose
+   * speed changes by one unit per action.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   * @throws IllegalArgumentException if the configuration has too many states
+   */
+  public ShiftSolver(GearRangeTable speedRanges) throws IllegalArgumentException {
+    this(speedRanges, defaultSpeedChange);
+  }
+
+  /**
+   * Constructs a ShiftSolver for transmissions with the given speed ranges whose
+   * speed changes by the given amount per action.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   * @param speedChange amount by which a single action changes the speed
+   * @throws IllegalArgumentException if the speed change is not positive, or the
+   *                                  configuration has too many states
+   */
+  public ShiftSolver(GearRangeTable speedRanges, int speedChange)
+          throws IllegalArgumentException {
+    this(speedRanges, speedChange, defaultCacheBytes);
+  }
+
+  /**
+   * Constructs a ShiftSolver for transmissions with the given speed ranges whose
+   * speed changes by the given amount per action, keeping cached rows within the
+   * given number of bytes.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   * @param speedChange amount by which a single action changes the speed
+   * @param cacheBytes  largest number of bytes taken by cached rows
+   * @throws IllegalArgumentException if the speed change or the budget is not positive,
+   *                                  or the configuration has too many states
+   */
+  public ShiftSolver(GearRangeTable speedRanges, int speedChange, long cacheBytes)
+          throws IllegalArgumentException {
+    if (cacheBytes <= 0) {
+      throw new IllegalArgumentException("Cache budget should be positive.");
+    }
+    if (speedChange <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    long states = ((long) speedRanges.getMaxSpeed() - speedRanges.getMinSpeed() + 1)
+            * speedRanges.getGearCount();
+    if (states > maxStates) {
+      throw new IllegalArgumentException("The given speed range is too wide "
+              + "for a shift solver.");
+    }
+    this.speedRanges = speedRanges;
+    this.speedChange = speedChange;
+    this.minSpeed = speedRanges.getMinSpeed();
+    this.gearCount = speedRanges.getGearCount();
+    this.stateCount = (int) states;
+    int maxCachedRows = (int) Math.max(1, Math.min(this.stateCount,
+            cacheBytes / ((long) Integer.BYTES * this.stateCount)));
+    this.maxCachedRows = maxCachedRows;
+    this.rows = new LinkedHashMap<Integer, int[]>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+        return size() > maxCachedRows;
+      }
+    };
+  }
+
+  /**
+   * Get the smallest number of actions that lead from one state to another.
+   *
+   * @param fromSpeed speed of the starting state
+   * @param fromGear  gear of the starting state
+   * @param toSpeed   speed of the target state
+   * @param toGear    gear of the target state
+   * @return number of actions, 0 for the same state, or -1 if the target cannot be reached.
+   * @throws IllegalArgumentException if a state is outside the configuration
+   */
+  public int distance(int fromSpeed, int fromGear, int toSpeed, int toGear)
+          throws IllegalArgumentException {
+    int entry = row(index(fromSpeed, fromGear))[index(toSpeed, toGear)];
+    return entry == unreachable ? unreachable : entry >>> actionBits;
+  }
+
+  /**
+   * Check whether one state can be reached from another.
+   *
+   * @param fromSpeed speed of the starting state
+   * @param fromGear  gear of the starting state
+   * @param toSpeed   speed of the target state
+   * @param toGear    gear of the target state
+   * @return true if some sequence of actions leads to the target.
+   * @throws IllegalArgumentException if a state is outside the configuration
+   */
+  public boolean isReachable(int fromSpeed, int fromGear, int toSpeed, int toGear)
+          throws IllegalArgumentException {
+    return distance(fromSpeed, fromGear, toSpeed, toGear) != unreachable;
+  }
+
+  /**
+   * Get a shortest sequence of actions leading from one state to another.
+   *
+   * @param fromSpeed speed of the starting state
+   * @param fromGear  gear of the starting state
+   * @param toSpeed   speed of the target state
+   * @param toGear    gear of the target state
+   * @return action codes, as in {@link TransmissionAction#getCode()}, in the order they
+   *         are applied, or null if the target cannot be reached.
+   * @throws IllegalArgumentException if a state is outside the configuration
+   */
+  public byte[] shortestPath(int fromSpeed, int fromGear, int toSpeed, int toGear)
+          throws IllegalArgumentException {
+    int[] row = row(index(fromSpeed, fromGear));
+    int target = index(toSpeed, toGear);
+    if (row[target] == unreachable) {
+      return null;
+    }
+    byte[] path = new byte[row[target] >>> actionBits];
+    for (int step = path.length - 1; step >= 0; step--) {
+      int action = row[target] & actionMask;
+      path[step] = (byte) action;
+      target = previous(target, action);
+    }
+    return path;
+  }
+
+  /**
+   * Get every state that cannot be reached from the initial state of the vehicle,
+   * the lowest speed in the first gear. Only states whose speed lies within the range
+   * of their gear are considered, since no other state can occur while driving.
+   *
+   * @return speed and gear of every unreachable state, ordered by speed then gear.
+   */
+  public int[][] getUnreachableStates() {
+    return getUnreachableStates(this.minSpeed, initialGear);
+  }
+
+  /**
+   * Get every state that cannot be reached from the given state, among the states
+   * whose speed lies within the range of their gear.
+   *
+   * @param fromSpeed speed of the starting state
+   * @param fromGear  gear of the starting state
+   * @return speed and gear of every unreachable state, ordered by speed then gear.
+   * @throws IllegalArgumentException if the state is outside the configuration
+   */
+  public int[][] getUnreachableStates(int fromSpeed, int fromGear)
+          throws IllegalArgumentException {
+    int[] row = row(index(fromSpeed, fromGear));
+    int count = 0;
+    for (int state = 0; state < row.length; state++) {
+      if (row[state] == unreachable && isDrivable(state)) {
+        count++;
+      }
+    }
+    int[][] states = new int[count][];
+    count = 0;
+    for (int state = 0; state < row.length; state++) {
+      if (row[state] == unreachable && isDrivable(state)) {
+        states[count++] = new int[] {speed(state), gear(state)};
+      }
+    }
+    return states;
+  }
+
+  /**
+   * Get the number of states whose distances have been computed and kept.
+   *
+   * @return number of cached rows of the all-pairs matrix.
+   */
+  public synchronized int getCachedSourceCount() {
+    return this.rows.size();
+  }
+
+  /**
+   * Get the largest number of rows kept at once within the cache budget.
+   *
+   * @return largest number of cached rows.
+   */
+  public int getMaxCachedSourceCount() {
+    return this.maxCachedRows;
+  }
+
+  private synchronized int[] row(int source) {
+    int[] row = this.rows.get(source);
+    if (row == null) {
+      row = search(source);
+      this.rows.put(source, row);
+    }
+    return row;
+  }
+
+  /**
+   * Only called while holding the lock, so the queue is shared by every search.
+   */
+  private int[] search(int source) {
+    int[] row = new int[this.stateCount];
+    Arrays.fill(row, unreachable);
+    if (this.queue == null) {
+      this.queue = new int[this.stateCount];
+    }
+    int[] queue = this.queue;
+    int head = 0;
+    int tail = 0;
+    row[source] = 0;
+    queue[tail++] = source;
+    while (head < tail) {
+      int state = queue[head++];
+      int nextDistance = ((row[state] >>> actionBits) + 1) << actionBits;
+      int speed = speed(state);
+      int gear = gear(state);
+      for (int action = 0; action < actionCount; action++) {
+        long next = TransmissionRules.apply(this.speedRanges, speed, gear, action,
+                this.speedChange);
+        int target = index(TransmissionStateCodec.speed(next), TransmissionStateCodec.gear(next));
+        if (row[target] == unreachable) {
+          row[target] = nextDistance | action;
+          queue[tail++] = target;
+        }
+      }
+    }
+    return row;
+  }
+
+  private int previous(int state, int action) {
+    switch (action) {
+      case 0:
+        return state - this.speedChange * this.gearCount;
+      case 1:
+        return state + this.speedChange * this.gearCount;
+      case 2:
+        return state - 1;
+      default:
+        return state + 1;
+    }
+  }
+
+  private int index(int speed, int gear) {
+    if (speed < this.minSpeed || speed > this.speedRanges.getMaxSpeed()
+            || gear < initialGear || gear > this.gearCount) {
+      throw new IllegalArgumentException("Speed " + speed + " in gear " + gear
+              + " is outside the configuration.");
+    }
+    return (speed - this.minSpeed) * this.gearCount + gear - initialGear;
+  }
+
+  private boolean isDrivable(int state) {
+    int speed = speed(state);
+    int gear = gear(state);
+    return speed >= this.speedRanges.getLowSpeed(gear)
+            && speed <= this.speedRanges.getHighSpeed(gear);
+  }
+
+  private int speed(int state) {
+    return state / this.gearCount + this.minSpeed;
+  }
+
+  private int gear(int state) {
+    return state % this.gearCount + initialGear;
+  }
+}
@@ -0,0 +1,99 @@
+package vehicle;
+
+import java.util.Map;
+import java.util.ResourceBundle;
+
+
+/**
+ * This class represents a table of status messages, one per {@link TransmissionStatus}.
+ * Transmissions only keep the status itself, as a constant or a one-byte code, and
+ * turn it into text when a message is asked for, so a different table can be used
+ * for each caller, for example to show translated messages. Statuses missing from a
+ * custom table keep their default message, which is exactly the text returned by
+ * {@link ManualTransmission#getStatus()}.
+ */
+public final class StatusMessages {
+
+  private static final StatusMessages defaults = new StatusMessages(defaultMessages());
+
+  private final String[] messages;
+
+  private StatusMessages(String[] messages) {
+    this.messages = messages;
+  }
+
+  /**
+   * Get the table of default messages, as returned by getStatus.
+   *
+   * @return table of default messages.
+   */
+  public static StatusMessages defaults() {
+    return defaults;
+  }
+
+  /**
+   * Create a table from the given messages.
+   *
+   * @param messages message of some or all statuses
+   * @return table using these messages and the default for every other status.
+   * @throws IllegalArgumentException if a message is null
+   */
+  public static StatusMessages of(Map<TransmissionStatus, String> messages)
+          throws IllegalArgumentException {
+    String[] table = defaultMessages();
+    for (Map.Entry<TransmissionStatus, String> entry : messages.entrySet()) {
+      if (entry.getValue() == null) {
+        throw new IllegalArgumentException("No message given for " + entry.getKey() + ".");
+      }
+      table[entry.getKey().getCode()] = entry.getValue();
+    }
+    return new StatusMessages(table);
+  }
+
+  /**
+   * Create a table from a resource bundle whose keys are the names of the statuses,
+   * such as INCREASE_GEAR_FIRST. The bundle is read once, when the table is created.
+   *
+   * @param bundle localised messages of some or all statuses
+   * @return table using the bundle's messages and the default for every other status.
+   */
+  public static StatusMessages fromBundle(ResourceBundle bundle) {
+    String[] table = defaultMessages();
+    for (TransmissionStatus status : TransmissionStatus.values()) {
+      if (bundle.containsKey(status.name())) {
+        table[status.getCode()] = bundle.getString(status.name());
+      }
+    }
+    return new StatusMessages(table);
+  }
+
+  /**
+   * Get the message of the given status.
+   *
+   * @param status status of a transmission
+   * @return message of that status in this table.
+   */
+  public String getMessage(TransmissionStatus status) {
+    return this.messages[status.getCode()];
+  }
+
+  /**
+   * Get the message of the status with the given code.
+   *
+   * @param code status code, as in {@link TransmissionStatus#getCode()}
+   * @return message of that status in this table.
+   * @throws IllegalArgumentException if no status has that code
+   */
+  public String getMessage(int code) throws IllegalArgumentException {
+    return getMessage(TransmissionStatus.fromCode(code));
+  }
+
+  private static String[] defaultMessages() {
+    TransmissionStatus[] statuses = TransmissionStatus.values();
+    String[] table = new String[statuses.length];
+    for (TransmissionStatus status : statuses) {
+      table[status.getCode()] = status.getMessage();
+    }
+    return table;
+  }
+}
@@ -0,0 +1,205 @@
+package vehicle;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * This class streams back a trace written by {@link TraceWriter}. It works as a
+ * cursor: every call to {@link #next()} decodes one record into primitive fields,
+ * so that traces of any size can be read without creating an object per record.
+ */
+public final class TraceReader implements Closeable {
+
+  private final ReadableByteChannel channel;
+  private final ByteBuffer buffer;
+  private boolean endOfChannel;
+  private int action;
+  private int speed;
+  private int gear;
+  private int statusCode;
+  private long recordCount;
+
+  /**
+   * Constructs a TraceReader that reads from the given channel through a buffer
+   * of the default size.
+   *
+   * @param channel channel holding the trace
+   * @throws IOException if the channel does not start with a trace header
+   */
+  public TraceReader(ReadableByteChannel channel) throws IOException {
+    this(channel, TraceWriter.defaultBufferSize);
+  }
+
+  /**
+   * Constructs a TraceReader that reads from the given channel through a buffer
+   * of the given size.
+   *
+   * @param channel    channel holding the trace
+   * @param bufferSize size of the read buffer in bytes
+   * @throws IOException              if the channel does not start with a trace header
+   * @throws IllegalArgumentException if the buffer cannot hold a single record
+   */
+  public TraceReader(ReadableByteChannel channel, int bufferSize)
+          throws IOException, IllegalArgumentException {
+    if (bufferSize < TraceWriter.maxRecordBytes) {
+      throw new IllegalArgumentException("The buffer should hold at least "
+              + TraceWriter.maxRecordBytes + " bytes.");
+    }
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    this.buffer.flip();
+    fill();
+    if (this.buffer.remaining() < 5 || this.buffer.getInt() != TraceWriter.magic) {
+      throw new IOException("The channel does not hold a transmission trace.");
+    }
+    byte traceVersion = this.buffer.get();
+    if (traceVersion != TraceWriter.version) {
+      throw new IOException("Unsupported trace version " + traceVersion + ".");
+    }
+  }
+
+  /**
+   * Opens a TraceReader on the given file.
+   *
+   * @param path file holding the trace
+   * @return reader for that file.
+   * @throws IOException if the file cannot be opened or holds no trace
+   */
+  public static TraceReader open(Path path) throws IOException {
+    return new TraceReader(FileChannel.open(path, StandardOpenOption.READ));
+  }
+
+  /**
+   * Move to the next record of the trace.
+   *
+   * @return true if a record was read, false at the end of the trace.
+   * @throws IOException if the trace cannot be read or ends inside a record
+   */
+  public boolean next() throws IOException {
+    if (this.buffer.remaining() < TraceWriter.maxRecordBytes) {
+      fill();
+      if (!this.buffer.hasRemaining()) {
+        return false;
+      }
+    }
+    int head = this.buffer.get() & 0xFF;
+    this.action = head & ((1 << TraceWriter.actionBits) - 1);
+    this.statusCode = head >>> TraceWriter.actionBits;
+    this.speed += unzigzag(getVarint());
+    this.gear += unzigzag(getVarint());
+    this.recordCount++;
+    return true;
+  }
+
+  /**
+   * Get the code of the action of the current record.
+   *
+   * @return action code, as in {@link TransmissionAction#getCode()}.
+   */
+  public int getActionCode() {
+    return this.action;
+  }
+
+  /**
+   * Get the action of the current record.
+   *
+   * @return applied action.
+   */
+  public TransmissionAction getAction() {
+    return TransmissionAction.fromCode(this.action);
+  }
+
+  /**
+   * Get the speed after the action of the current record.
+   *
+   * @return speed of the vehicle.
+   */
+  public int getSpeed() {
+    return this.speed;
+  }
+
+  /**
+   * Get the gear after the action of the current record.
+   *
+   * @return gear of the vehicle.
+   */
+  public int getGear() {
+    return this.gear;
+  }
+
+  /**
+   * Get the status code after the action of the current record.
+   *
+   * @return status code, as in {@link TransmissionStatus#getCode()}.
+   */
+  public int getStatusCode() {
+    return this.statusCode;
+  }
+
+  /**
+   * Get the status after the action of the current record.
+   *
+   * @return status of the vehicle.
+   */
+  public TransmissionStatus getTransmissionStatus() {
+    return TransmissionStatus.fromCode(this.statusCode);
+  }
+
+  /**
+   * Get the number of records read so far.
+   *
+   * @return number of records.
+   */
+  public long getRecordCount() {
+    return this.recordCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  private void fill() throws IOException {
+    if (this.endOfChannel) {
+      return;
+    }
+    this.buffer.compact();
+    while (this.buffer.hasRemaining()) {
+      int read = this.channel.read(this.buffer);
+      if (read < 0) {
+        this.endOfChannel = true;
+        break;
+      }
+      if (read == 0) {
+        break;
+      }
+    }
+    this.buffer.flip();
+  }
+
+  private int getVarint() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      if (!this.buffer.hasRemaining()) {
+        throw new EOFException("The trace ends inside a record.");
+      }
+      byte next = this.buffer.get();
+      value |= (next & 0x7F) << shift;
+      if (next >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint in the trace.");
+  }
+
+  private static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,207 @@
+package vehicle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * This class streams the transitions of a transmission session to a channel in a
+ * compact binary format, so that long sessions can be kept for later analysis
+ * without building any strings. The trace starts with a short header, followed by
+ * one record per transition:
+ * <ul>
+ * <li>one byte holding the status code in the upper bits and the action code in
+ * the lowest two bits, </li>
+ * <li>the change of speed since the previous record, as a zigzag varint, </li>
+ * <li>the change of gear since the previous record, as a zigzag varint. </li>
+ * </ul>
+ * The first record is relative to speed 0 in gear 0. Single steps therefore take
+ * three bytes each. Records are gathered in a direct buffer and written to the
+ * channel whenever the buffer fills up. A {@link TraceReader} reads the trace back.
+ */
+public final class TraceWriter implements Closeable {
+
+  static final int magic = 0x4D545452;
+  static final byte version = 1;
+  static final int actionBits = 2;
+  static final int maxRecordBytes = 1 + 5 + 5;
+  static final int defaultBufferSize = 1 << 16;
+  private static final int actionCount = TransmissionAction.values().length;
+  private static final int statusCount = TransmissionStatus.values().length;
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer;
+  private int lastSpeed;
+  private int lastGear;
+  private long recordCount;
+  private boolean closed;
+
+  /**
+   * Constructs a TraceWriter that writes to the given channel through a buffer
+   * of the default size.
+   *
+   * @param channel channel receiving the trace
+   * @throws IOException if the header cannot be written
+   */
+  public TraceWriter(WritableByteChannel channel) throws IOException {
+    this(channel, defaultBufferSize);
+  }
+
+  /**
+   * Constructs a TraceWriter that writes to the given channel through a buffer
+   * of the given size.
+   *
+   * @param channel    channel receiving the trace
+   * @param bufferSize size of the write buffer in bytes
+   * @throws IOException              if the header cannot be written
+   * @throws IllegalArgumentException if the buffer cannot hold a single record
+   */
+  public TraceWriter(WritableByteChannel channel, int bufferSize)
+          throws IOException, IllegalArgumentException {
+    if (bufferSize < maxRecordBytes) {
+      throw new IllegalArgumentException("The buffer should hold at least "
+              + maxRecordBytes + " bytes.");
+    }
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    this.buffer.putInt(magic).put(version);
+  }
+
+  /**
+   * Creates or truncates the given file and opens a TraceWriter on it.
+   *
+   * @param path file receiving the trace
+   * @return writer for that file.
+   * @throws IOException if the file cannot be opened
+   */
+  public static TraceWriter open(Path path) throws IOException {
+    return new TraceWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+  }
+
+  /**
+   * Apply the action to the transmission and record the resulting state.
+   *
+   * @param current transmission before the action
+   * @param action  action to apply
+   * @return transmission after the action.
+   * @throws IOException if the trace cannot be written
+   */
+  public ManualTransmission apply(ManualTransmission current, TransmissionAction action)
+          throws IOException {
+    ManualTransmission next = action.apply(current);
+    write(action.getCode(), next.getSpeed(), next.getGear(),
+            next.getTransmissionStatus().getCode());
+    return next;
+  }
+
+  /**
+   * Record every step of a replayed drive cycle.
+   *
+   * @param actions action codes that were replayed
+   * @param trace   trace filled by {@link TransmissionReplay} for those actions
+   * @throws IOException              if the trace cannot be written
+   * @throws IllegalArgumentException if the trace does not hold one step per action
+   */
+  public void write(byte[] actions, ReplayTrace trace)
+          throws IOException, IllegalArgumentException {
+    if (trace.length() != actions.length) {
+      throw new IllegalArgumentException("The trace holds " + trace.length()
+              + " steps but there are " + actions.length + " actions.");
+    }
+    for (int step = 0; step < actions.length; step++) {
+      write(actions[step], trace.getSpeed(step), trace.getGear(step),
+              trace.getStatusCode(step));
+    }
+  }
+
+  /**
+   * Record one transition.
+   *
+   * @param action     code of the applied action
+   * @param speed      speed after the action
+   * @param gear       gear after the action
+   * @param statusCode status code after the action
+   * @throws IOException              if the trace cannot be written
+   * @throws IllegalArgumentException if the action or status code is unknown
+   */
+  public void write(int action, int speed, int gear, int statusCode)
+          throws IOException, IllegalArgumentException {
+    if (this.closed) {
+      throw new IOException("The trace writer is closed.");
+    }
+    if (action < 0 || action >= actionCount) {
+      throw new IllegalArgumentException("Unknown action code " + action + ".");
+    }
+    if (statusCode < 0 || statusCode >= statusCount) {
+      throw new IllegalArgumentException("Unknown status code " + statusCode + ".");
+    }
+    if (this.buffer.remaining() < maxRecordBytes) {
+      drain();
+    }
+    this.buffer.put((byte) (statusCode << actionBits | action));
+    putVarint(zigzag(speed - this.lastSpeed));
+    putVarint(zigzag(gear - this.lastGear));
+    this.lastSpeed = speed;
+    this.lastGear = gear;
+    this.recordCount++;
+  }
+
+  /**
+   * Get the number of transitions recorded so far.
+   *
+   * @return number of records.
+   */
+  public long getRecordCount() {
+    return this.recordCount;
+  }
+
+  /**
+   * Write every buffered record to the channel.
+   *
+   * @throws IOException if the trace cannot be written
+   */
+  public void flush() throws IOException {
+    if (!this.closed) {
+      drain();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    try {
+      drain();
+    } finally {
+      this.closed = true;
+      this.channel.close();
+    }
+  }
+
+  private void drain() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+
+  private void putVarint(int value) {
+    while ((value & ~0x7F) != 0) {
+      this.buffer.put((byte) (value & 0x7F | 0x80));
+      value >>>= 7;
+    }
+    this.buffer.put((byte) value);
+  }
+
+  private static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+}
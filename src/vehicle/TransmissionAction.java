@@ -0,0 +1,74 @@
+package vehicle;
+
+
+/**
+ * This enum represents the four actions a driver can take on a manual transmission.
+ * Each action has a one-byte code so that recorded action sequences can be stored
+ * and replayed as byte arrays. Codes follow the declaration order.
+ */
+public enum TransmissionAction {
+
+  /**
+   * Push the gas pedal: increase the speed by a fixed amount.
+   */
+  INCREASE_SPEED,
+
+  /**
+   * Release the gas pedal: decrease the speed by a fixed amount.
+   */
+  DECREASE_SPEED,
+
+  /**
+   * Shift the stick up by one gear.
+   */
+  INCREASE_GEAR,
+
+  /**
+   * Shift the stick down by one gear.
+   */
+  DECREASE_GEAR;
+
+  private static final TransmissionAction[] byCode = values();
+
+  /**
+   * Get the compact code of this action.
+   *
+   * @return code of this action, between 0 and 3.
+   */
+  public byte getCode() {
+    return (byte) ordinal();
+  }
+
+  /**
+   * Get the action with the given compact code.
+   *
+   * @param code code as returned by getCode
+   * @return action with that code.
+   * @throws IllegalArgumentException if no action has that code
+   */
+  public static TransmissionAction fromCode(int code) throws IllegalArgumentException {
+    if (code < 0 || code >= byCode.length) {
+      throw new IllegalArgumentException("Unknown action code " + code + ".");
+    }
+    return byCode[code];
+  }
+
+  /**
+   * Apply this action to the given transmission.
+   *
+   * @param transmission transmission to act on
+   * @return transmission object returned by the matching method.
+   */
+  public ManualTransmission apply(ManualTransmission transmission) {
+    switch (this) {
+      case INCREASE_SPEED:
+        return transmission.increaseSpeed();
+      case DECREASE_SPEED:
+        return transmission.decreaseSpeed();
+      case INCREASE_GEAR:
+        return transmission.increaseGear();
+      default:
+        return transmission.decreaseGear();
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package vehicle;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * This class builds RegularManualTransmission objects from a catalogue of known
+ * gear configurations. The outcome of validating each configuration is remembered:
+ * either the validated {@link GearRangeTable}, or the message of the
+ * IllegalArgumentException it caused. Creating a transmission for a configuration
+ * that was seen before therefore skips validation entirely.
+ *
+ * <p>The cache keeps at most a fixed number of configurations and evicts the least
+ * recently used one when it is full. Objects of this class are thread-safe.
+ */
+public final class TransmissionFactory {
+
+  private static final int defaultCapacity = 256;
+  private static final TransmissionFactory shared = new TransmissionFactory(defaultCapacity);
+
+  private final Map<RangeKey, Object> outcomes;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Constructs a factory that remembers up to the given number of configurations.
+   *
+   * @param capacity largest number of configurations kept
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public TransmissionFactory(int capacity) throws IllegalArgumentException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Cache capacity should be positive.");
+    }
+    this.outcomes = new LinkedHashMap<RangeKey, Object>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<RangeKey, Object> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Create a transmission in its initial state using the shared factory, which
+   * remembers up to 256 configurations.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @return a new transmission in its initial state.
+   * @throws IllegalArgumentException will throw an IllegalArgumentException for any invalid inputs
+   */
+  public static ManualTransmission of(int... ranges) throws IllegalArgumentException {
+    return shared.create(ranges);
+  }
+
+  /**
+   * Get the factory used by {@link #of(int...)}.
+   *
+   * @return the shared factory.
+   */
+  public static TransmissionFactory shared() {
+    return shared;
+  }
+
+  /**
+   * Create a transmission in its initial state for the given configuration.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @return a new transmission in its initial state.
+   * @throws IllegalArgumentException will throw an IllegalArgumentException for any invalid inputs
+   */
+  public ManualTransmission create(int... ranges) throws IllegalArgumentException {
+    return new RegularManualTransmission(speedRanges(ranges));
+  }
+
+  /**
+   * Get the validated speed ranges of the given configuration, validating it only
+   * if it is not remembered yet.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @return validated speed ranges, shared by every caller with the same configuration.
+   * @throws IllegalArgumentException with the same message as the first validation,
+   *                                  if the configuration is invalid
+   */
+  public GearRangeTable speedRanges(int... ranges) throws IllegalArgumentException {
+    RangeKey key = new RangeKey(ranges);
+    Object outcome;
+    synchronized (this.outcomes) {
+      outcome = this.outcomes.get(key);
+    }
+    if (outcome == null) {
+      this.misses.increment();
+      outcome = validate(ranges);
+      RangeKey copy = new RangeKey(ranges == null ? null : ranges.clone());
+      synchronized (this.outcomes) {
+        this.outcomes.put(copy, outcome);
+      }
+    } else {
+      this.hits.increment();
+    }
+    if (outcome instanceof String) {
+      throw new IllegalArgumentException((String) outcome);
+    }
+    return (GearRangeTable) outcome;
+  }
+
+  /**
+   * Get the number of configurations found in the cache.
+   *
+   * @return number of hits.
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Get the number of configurations that had to be validated.
+   *
+   * @return number of misses.
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Get the number of configurations currently remembered.
+   *
+   * @return number of cached configurations.
+   */
+  public int size() {
+    synchronized (this.outcomes) {
+      return this.outcomes.size();
+    }
+  }
+
+  private static Object validate(int[] ranges) {
+    try {
+      return new GearRangeTable(ranges);
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  /**
+   * The speeds of a configuration used as a map key. Keys stored in the cache hold
+   * their own copy of the speeds, so that later changes to the caller's array do
+   * not affect the cache.
+   */
+  private static final class RangeKey {
+
+    private final int[] ranges;
+    private final int hash;
+
+    private RangeKey(int[] ranges) {
+      this.ranges = ranges;
+      this.hash = Arrays.hashCode(ranges);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof RangeKey && Arrays.equals(this.ranges, ((RangeKey) o).ranges);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
@@ -0,0 +1,292 @@
+package vehicle;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * This class represents the manual transmissions of a whole fleet of vehicles.
+ * Instead of one object per vehicle, the speeds, gears and status codes of all
+ * vehicles are kept in primitive arrays, and vehicles of the same model share
+ * one {@link GearRangeTable}. A fleet takes about eight bytes per vehicle, and
+ * every step applies the same rules as {@link RegularManualTransmission}.
+ *
+ * <p>Vehicles are numbered from 0 to size - 1. Objects of this class are not
+ * thread-safe, but a single tick can be spread over a {@link ForkJoinPool}
+ * with {@link #applyActions(byte[], ForkJoinPool, int)}. Fleets of a single model
+ * are stepped by {@link FleetKernel#preferred()}.
+ */
+public class TransmissionFleet {
+
+  private static final int initialGear = 1;
+  private static final int speedChange = 1;
+
+  private final GearRangeTable[] models;
+  private final short[] modelIndexes;
+  private final int[] speeds;
+  private final byte[] gears;
+  private final byte[] statusCodes;
+
+  /**
+   * Constructs a fleet of vehicles of the same model, all in their initial state.
+   *
+   * @param size        number of vehicles
+   * @param speedRanges validated speed ranges shared by every vehicle
+   * @throws IllegalArgumentException if the size is negative or the model has too many gears
+   */
+  public TransmissionFleet(int size, GearRangeTable speedRanges) throws IllegalArgumentException {
+    this(new GearRangeTable[] {speedRanges}, null, size);
+  }
+
+  /**
+   * Constructs a fleet of vehicles of several models, all in their initial state.
+   *
+   * @param models        validated speed ranges of every model
+   * @param modelIndexes  for every vehicle, the index of its model in models
+   * @throws IllegalArgumentException if a model index is out of range, there are more than
+   *                                  32767 models or a model has too many gears
+   */
+  public TransmissionFleet(GearRangeTable[] models, int[] modelIndexes)
+          throws IllegalArgumentException {
+    this(models, toShorts(models, modelIndexes), modelIndexes.length);
+  }
+
+  private TransmissionFleet(GearRangeTable[] models, short[] modelIndexes, int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Fleet size should not be negative.");
+    }
+    if (models.length == 0) {
+      throw new IllegalArgumentException("A fleet needs at least one model.");
+    }
+    for (GearRangeTable model : models) {
+      if (model.getGearCount() > Byte.MAX_VALUE) {
+        throw new IllegalArgumentException("A fleet supports at most "
+                + Byte.MAX_VALUE + " gears.");
+      }
+    }
+    this.models = models.clone();
+    this.modelIndexes = modelIndexes;
+    this.speeds = new int[size];
+    this.gears = new byte[size];
+    this.statusCodes = new byte[size];
+    reset();
+  }
+
+  /**
+   * Get the number of vehicles in this fleet.
+   *
+   * @return number of vehicles.
+   */
+  public int size() {
+    return this.speeds.length;
+  }
+
+  /**
+   * Get the speed ranges of the given vehicle.
+   *
+   * @param vehicle vehicle number
+   * @return speed ranges of the model of that vehicle.
+   */
+  public GearRangeTable getModel(int vehicle) {
+    return this.models[modelIndex(vehicle)];
+  }
+
+  /**
+   * Get the current speed of the given vehicle.
+   *
+   * @param vehicle vehicle number
+   * @return current speed of that vehicle.
+   */
+  public int getSpeed(int vehicle) {
+    return this.speeds[vehicle];
+  }
+
+  /**
+   * Get the current gear of the given vehicle.
+   *
+   * @param vehicle vehicle number
+   * @return current gear of that vehicle.
+   */
+  public int getGear(int vehicle) {
+    return this.gears[vehicle];
+  }
+
+  /**
+   * Get the current status of the given vehicle.
+   *
+   * @param vehicle vehicle number
+   * @return current status of that vehicle.
+   */
+  public TransmissionStatus getTransmissionStatus(int vehicle) {
+    return TransmissionStatus.fromCode(this.statusCodes[vehicle]);
+  }
+
+  /**
+   * Get the current status code of the given vehicle.
+   *
+   * @param vehicle vehicle number
+   * @return current status code of that vehicle, as in {@link TransmissionStatus#getCode()}.
+   */
+  public byte getStatusCode(int vehicle) {
+    return this.statusCodes[vehicle];
+  }
+
+  /**
+   * Apply one action to every vehicle of the fleet: vehicle i takes the action
+   * whose code is actions[i]. Every code is checked first, so a rejected set of
+   * actions leaves the fleet unchanged.
+   *
+   * @param actions action code of every vehicle, as in {@link TransmissionAction#getCode()}
+   * @throws IllegalArgumentException if there is not exactly one action per vehicle,
+   *                                  or an action code is unknown
+   */
+  public void applyActions(byte[] actions) throws IllegalArgumentException {
+    if (actions.length != size()) {
+      throw new IllegalArgumentException("Expected one action for each of the "
+              + size() + " vehicles.");
+    }
+    FleetKernel.checkActions(actions, 0, size());
+    applyActions(actions, 0, size());
+  }
+
+  /**
+   * Apply one action to every vehicle of the fleet, splitting the fleet into chunks
+   * of consecutive vehicles that are stepped in parallel on the given pool. Every
+   * vehicle only depends on its own state and action, so the result is the same as
+   * {@link #applyActions(byte[])} whatever the number of threads or the chunk size.
+   * Every code is checked before any chunk runs, so a rejected set of actions leaves
+   * the fleet unchanged. This method returns once every vehicle has been stepped.
+   *
+   * @param actions   action code of every vehicle, as in {@link TransmissionAction#getCode()}
+   * @param pool      pool that runs the chunks
+   * @param chunkSize largest number of vehicles stepped by a single task
+   * @throws IllegalArgumentException if there is not exactly one action per vehicle,
+   *                                  an action code is unknown or the chunk size is not positive
+   */
+  public void applyActions(byte[] actions, ForkJoinPool pool, int chunkSize)
+          throws IllegalArgumentException {
+    if (actions.length != size()) {
+      throw new IllegalArgumentException("Expected one action for each of the "
+              + size() + " vehicles.");
+    }
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size should be positive.");
+    }
+    FleetKernel.checkActions(actions, 0, size());
+    pool.invoke(new StepTask(actions, 0, size(), chunkSize));
+  }
+
+  /**
+   * Apply one action to a single vehicle.
+   *
+   * @param vehicle vehicle number
+   * @param action  action taken by the driver of that vehicle
+   * @return status of that vehicle after the action.
+   */
+  public TransmissionStatus applyAction(int vehicle, TransmissionAction action) {
+    step(vehicle, action.getCode());
+    return getTransmissionStatus(vehicle);
+  }
+
+  /**
+   * Take an immutable copy of the current state of the given vehicle.
+   *
+   * @param vehicle vehicle number
+   * @return immutable transmission in the current state of that vehicle.
+   */
+  public ManualTransmission snapshot(int vehicle) {
+    return new RegularManualTransmission(getModel(vehicle), speedChange, this.speeds[vehicle],
+            this.gears[vehicle], getTransmissionStatus(vehicle));
+  }
+
+  /**
+   * Put every vehicle back in the first gear at its lowest speed.
+   */
+  public void reset() {
+    for (int vehicle = 0; vehicle < size(); vehicle++) {
+      this.speeds[vehicle] = getModel(vehicle).getMinSpeed();
+    }
+    Arrays.fill(this.gears, (byte) initialGear);
+    Arrays.fill(this.statusCodes, TransmissionStatus.OK.getCode());
+  }
+
+  /**
+   * Apply the actions of the vehicles from start (inclusive) to end (exclusive).
+   *
+   * @param actions action code of every vehicle
+   * @param start   first vehicle
+   * @param end     vehicle after the last one
+   */
+  void applyActions(byte[] actions, int start, int end) {
+    if (this.modelIndexes == null) {
+      FleetKernel.preferred().step(this.models[0], speedChange, this.speeds, this.gears,
+              this.statusCodes, actions, start, end);
+      return;
+    }
+    for (int vehicle = start; vehicle < end; vehicle++) {
+      step(vehicle, actions[vehicle]);
+    }
+  }
+
+  private void step(int vehicle, int action) {
+    long state = TransmissionRules.apply(getModel(vehicle), this.speeds[vehicle],
+            this.gears[vehicle], action, speedChange);
+    this.speeds[vehicle] = TransmissionStateCodec.speed(state);
+    this.gears[vehicle] = (byte) TransmissionStateCodec.gear(state);
+    this.statusCodes[vehicle] = (byte) TransmissionStateCodec.statusCode(state);
+  }
+
+  private int modelIndex(int vehicle) {
+    return this.modelIndexes == null ? 0 : this.modelIndexes[vehicle];
+  }
+
+  private static short[] toShorts(GearRangeTable[] models, int[] modelIndexes) {
+    if (models.length > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("A fleet supports at most "
+              + Short.MAX_VALUE + " models.");
+    }
+    short[] indexes = new short[modelIndexes.length];
+    for (int vehicle = 0; vehicle < modelIndexes.length; vehicle++) {
+      int index = modelIndexes[vehicle];
+      if (index < 0 || index >= models.length) {
+        throw new IllegalArgumentException("Vehicle " + vehicle
+                + " refers to unknown model " + index + ".");
+      }
+      indexes[vehicle] = (short) index;
+    }
+    return indexes;
+  }
+
+  /**
+   * Steps the vehicles from start (inclusive) to end (exclusive), halving the
+   * range until it is no larger than the chunk size.
+   */
+  private final class StepTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] actions;
+    private final int start;
+    private final int end;
+    private final int chunkSize;
+
+    private StepTask(byte[] actions, int start, int end, int chunkSize) {
+      this.actions = actions;
+      this.start = start;
+      this.end = end;
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= chunkSize) {
+        applyActions(actions, start, end);
+        return;
+      }
+      int middle = (start + end) >>> 1;
+      invokeAll(new StepTask(actions, start, middle, chunkSize),
+              new StepTask(actions, middle, end, chunkSize));
+    }
+  }
+}
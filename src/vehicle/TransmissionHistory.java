@@ -0,0 +1,218 @@
+package vehicle;
+
+import java.util.Arrays;
+
+
+/**
+ * This class represents the full history of a transmission as an event log: the
+ * action taken at every step, two bits each, plus the packed state of the
+ * transmission every K steps. The state at any step is rebuilt from the nearest
+ * snapshot at or before it by replaying at most K - 1 actions, so the history takes
+ * about 1/4 + 8/K bytes per step instead of one transmission object per step. A
+ * small K makes lookups faster; a large K makes the history smaller.
+ *
+ * <p>Step 0 is the starting state and step n is the state after the n-th action.
+ * Objects of this class are not thread-safe.
+ */
+public final class TransmissionHistory {
+
+  private static final int actionsPerByte = 4;
+  private static final int maxStepCount = Integer.MAX_VALUE - 8;
+
+  private final GearRangeTable speedRanges;
+  private final int speedChange;
+  private final int snapshotInterval;
+  private byte[] actions = new byte[16];
+  private long[] snapshots = new long[4];
+  private int stepCount;
+  private long state;
+
+  /**
+   * Constructs a TransmissionHistory starting from the given transmission that takes
+   * a snapshot every given number of steps.
+   *
+   * @param start            transmission at step 0
+   * @param snapshotInterval number of steps K between two snapshots
+   * @throws IllegalArgumentException if start is null or the interval is not positive
+   */
+  public TransmissionHistory(RegularManualTransmission start, int snapshotInterval)
+          throws IllegalArgumentException {
+    if (start == null) {
+      throw new IllegalArgumentException("Transmission should not be null.");
+    }
+    if (snapshotInterval <= 0) {
+      throw new IllegalArgumentException("Snapshot interval should be positive.");
+    }
+    this.speedRanges = start.getSpeedRanges();
+    this.speedChange = start.getSpeedChange();
+    this.snapshotInterval = snapshotInterval;
+    this.state = TransmissionStateCodec.pack(start);
+    this.snapshots[0] = this.state;
+  }
+
+  /**
+   * Apply an action to the current state and append it to the history.
+   *
+   * @param action action taken by the driver
+   * @return status of the transmission after the action.
+   * @throws IllegalStateException if the history is full
+   */
+  public TransmissionStatus record(TransmissionAction action) throws IllegalStateException {
+    return record(action.getCode());
+  }
+
+  /**
+   * Apply the action with the given code to the current state and append it to the
+   * history.
+   *
+   * @param action code of the action, as in {@link TransmissionAction#getCode()}
+   * @return status of the transmission after the action.
+   * @throws IllegalArgumentException if the action code is unknown
+   * @throws IllegalStateException    if the history is full
+   */
+  public TransmissionStatus record(int action)
+          throws IllegalArgumentException, IllegalStateException {
+    long next = TransmissionStateCodec.stepUnchecked(this.speedRanges, this.state, action,
+            this.speedChange);
+    append(action, next);
+    return TransmissionStateCodec.status(next);
+  }
+
+  /**
+   * Apply every action, in order, and append them to the history. Nothing is recorded
+   * if any action code is unknown.
+   *
+   * @param actions action codes, as in {@link TransmissionAction#getCode()}
+   * @return status of the transmission after the last action.
+   * @throws IllegalArgumentException if an action code is unknown
+   * @throws IllegalStateException    if the history is full
+   */
+  public TransmissionStatus record(byte[] actions)
+          throws IllegalArgumentException, IllegalStateException {
+    FleetKernel.checkActions(actions, 0, actions.length);
+    for (byte action : actions) {
+      append(action, TransmissionStateCodec.stepUnchecked(this.speedRanges, this.state,
+              action, this.speedChange));
+    }
+    return TransmissionStateCodec.status(this.state);
+  }
+
+  /**
+   * Get the number of actions recorded so far, which is also the latest step.
+   *
+   * @return number of recorded steps.
+   */
+  public int getStepCount() {
+    return this.stepCount;
+  }
+
+  /**
+   * Get the number of steps between two snapshots.
+   *
+   * @return snapshot interval K.
+   */
+  public int getSnapshotInterval() {
+    return this.snapshotInterval;
+  }
+
+  /**
+   * Get the number of snapshots kept, including the one of step 0.
+   *
+   * @return number of snapshots.
+   */
+  public int getSnapshotCount() {
+    return this.stepCount / this.snapshotInterval + 1;
+  }
+
+  /**
+   * Get the transmission at the latest step.
+   *
+   * @return current transmission.
+   */
+  public ManualTransmission getState() {
+    return TransmissionStateCodec.unpackUnchecked(this.speedRanges, this.state,
+            this.speedChange);
+  }
+
+  /**
+   * Get the action that led to the given step.
+   *
+   * @param step step from 1 to the step count
+   * @return action taken just before that step.
+   * @throws IndexOutOfBoundsException if no action led to that step
+   */
+  public TransmissionAction getAction(int step) throws IndexOutOfBoundsException {
+    if (step < 1 || step > this.stepCount) {
+      throw new IndexOutOfBoundsException("Step " + step + " is outside the recorded "
+              + "actions 1-" + this.stepCount + ".");
+    }
+    return TransmissionAction.fromCode(action(step - 1));
+  }
+
+  /**
+   * Get the transmission at the given step.
+   *
+   * @param step step from 0 to the step count
+   * @return transmission after that many actions.
+   * @throws IndexOutOfBoundsException if the step has not been recorded
+   */
+  public ManualTransmission stateAt(int step) throws IndexOutOfBoundsException {
+    return TransmissionStateCodec.unpackUnchecked(this.speedRanges, packedStateAt(step),
+            this.speedChange);
+  }
+
+  /**
+   * Get the packed state at the given step, replaying at most K - 1 actions from the
+   * nearest snapshot.
+   *
+   * @param step step from 0 to the step count
+   * @return packed state after that many actions, as built by
+   *         {@link TransmissionStateCodec}.
+   * @throws IndexOutOfBoundsException if the step has not been recorded
+   */
+  public long packedStateAt(int step) throws IndexOutOfBoundsException {
+    if (step < 0 || step > this.stepCount) {
+      throw new IndexOutOfBoundsException("Step " + step + " is outside the recorded "
+              + "steps 0-" + this.stepCount + ".");
+    }
+    if (step == this.stepCount) {
+      return this.state;
+    }
+    int snapshot = step / this.snapshotInterval;
+    long rebuilt = this.snapshots[snapshot];
+    for (int replayed = snapshot * this.snapshotInterval; replayed < step; replayed++) {
+      rebuilt = TransmissionStateCodec.stepUnchecked(this.speedRanges, rebuilt,
+              action(replayed), this.speedChange);
+    }
+    return rebuilt;
+  }
+
+  private int action(int index) {
+    return (this.actions[index / actionsPerByte] >>> (2 * (index % actionsPerByte))) & 3;
+  }
+
+  private void append(int action, long next) {
+    if (this.stepCount == maxStepCount) {
+      throw new IllegalStateException("The history holds at most " + maxStepCount
+              + " steps.");
+    }
+    int index = this.stepCount;
+    if (index / actionsPerByte == this.actions.length) {
+      this.actions = Arrays.copyOf(this.actions, grow(this.actions.length));
+    }
+    this.actions[index / actionsPerByte] |= (byte) (action << (2 * (index % actionsPerByte)));
+    this.stepCount = index + 1;
+    this.state = next;
+    if (this.stepCount % this.snapshotInterval == 0) {
+      int snapshot = this.stepCount / this.snapshotInterval;
+      if (snapshot == this.snapshots.length) {
+        this.snapshots = Arrays.copyOf(this.snapshots, grow(this.snapshots.length));
+      }
+      this.snapshots[snapshot] = next;
+    }
+  }
+
+  private static int grow(int length) {
+    return (int) Math.min(Integer.MAX_VALUE - 8, 2L * length);
+  }
+}
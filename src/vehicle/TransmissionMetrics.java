@@ -0,0 +1,255 @@
+package vehicle;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * This class collects metrics about transmissions in use: how often each status
+ * is reported, how long each action takes and how long speed ranges take to
+ * validate. All counters are {@link LongAdder}s, so many threads can record into
+ * the same metrics with little contention. Latencies are kept in histograms with
+ * one bucket per power of two of nanoseconds: bucket 0 counts zero nanoseconds and
+ * bucket b counts latencies from 2^(b-1) to 2^b - 1 nanoseconds.
+ *
+ * <p>Metrics are only recorded by transmissions wrapped with
+ * {@link InstrumentedTransmission} and by ranges validated through
+ * {@link #speedRanges(int...)}; everything else runs without any instrumentation.
+ */
+public final class TransmissionMetrics {
+
+  /**
+   * Number of buckets of every latency histogram.
+   */
+  public static final int bucketCount = Long.SIZE + 1;
+
+  private static final int actionCount = TransmissionAction.values().length;
+
+  private final LongAdder[] statusCounts = adders(TransmissionStatus.values().length);
+  private final LongAdder[] actionCounts = adders(actionCount);
+  private final LongAdder[] actionNanos = adders(actionCount);
+  private final LongAdder[][] actionHistograms = new LongAdder[actionCount][];
+  private final LongAdder validations = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder validationNanos = new LongAdder();
+  private final LongAdder[] validationHistogram = adders(bucketCount);
+
+  /**
+   * Constructs empty TransmissionMetrics.
+   */
+  public TransmissionMetrics() {
+    for (int action = 0; action < actionCount; action++) {
+      this.actionHistograms[action] = adders(bucketCount);
+    }
+  }
+
+  /**
+   * Validate the given speed ranges, recording how long the validation took and
+   * whether it failed.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @return the validated speed ranges.
+   * @throws IllegalArgumentException will throw an IllegalArgumentException for any invalid inputs
+   */
+  public GearRangeTable speedRanges(int... ranges) throws IllegalArgumentException {
+    long start = System.nanoTime();
+    try {
+      return new GearRangeTable(ranges);
+    } catch (IllegalArgumentException e) {
+      this.rejections.increment();
+      throw e;
+    } finally {
+      long nanos = System.nanoTime() - start;
+      this.validations.increment();
+      this.validationNanos.add(nanos);
+      this.validationHistogram[bucket(nanos)].increment();
+    }
+  }
+
+  /**
+   * Validate the given speed ranges and create an instrumented transmission in
+   * its initial state that records into these metrics.
+   *
+   * @param ranges lowest and highest speed of every gear, in gear order
+   * @return instrumented transmission.
+   * @throws IllegalArgumentException will throw an IllegalArgumentException for any invalid inputs
+   */
+  public ManualTransmission create(int... ranges) throws IllegalArgumentException {
+    return InstrumentedTransmission.wrap(new RegularManualTransmission(speedRanges(ranges)),
+            this);
+  }
+
+  /**
+   * Record one action applied to a transmission.
+   *
+   * @param action action that was applied
+   * @param status status reported after the action
+   * @param nanos  time the action took, in nanoseconds
+   */
+  public void recordTransition(TransmissionAction action, TransmissionStatus status,
+                               long nanos) {
+    int code = action.getCode();
+    this.statusCounts[status.getCode()].increment();
+    this.actionCounts[code].increment();
+    this.actionNanos[code].add(nanos);
+    this.actionHistograms[code][bucket(nanos)].increment();
+  }
+
+  /**
+   * Take a copy of every counter. Counters updated while the snapshot is taken
+   * may or may not be included.
+   *
+   * @return current values of the metrics.
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(this);
+  }
+
+  /**
+   * Set every counter back to zero.
+   */
+  public void reset() {
+    for (LongAdder adder : this.statusCounts) {
+      adder.reset();
+    }
+    for (int action = 0; action < actionCount; action++) {
+      this.actionCounts[action].reset();
+      this.actionNanos[action].reset();
+      for (LongAdder adder : this.actionHistograms[action]) {
+        adder.reset();
+      }
+    }
+    this.validations.reset();
+    this.rejections.reset();
+    this.validationNanos.reset();
+    for (LongAdder adder : this.validationHistogram) {
+      adder.reset();
+    }
+  }
+
+  private static int bucket(long nanos) {
+    return Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+  }
+
+  private static LongAdder[] adders(int count) {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  private static long[] sums(LongAdder[] adders) {
+    long[] sums = new long[adders.length];
+    for (int i = 0; i < adders.length; i++) {
+      sums[i] = adders[i].sum();
+    }
+    return sums;
+  }
+
+  /**
+   * This class represents the values of TransmissionMetrics at one point in time.
+   */
+  public static final class Snapshot {
+
+    private final long[] statusCounts;
+    private final long[] actionCounts;
+    private final long[] actionNanos;
+    private final long[][] actionHistograms;
+    private final long validations;
+    private final long rejections;
+    private final long validationNanos;
+    private final long[] validationHistogram;
+
+    private Snapshot(TransmissionMetrics metrics) {
+      this.statusCounts = sums(metrics.statusCounts);
+      this.actionCounts = sums(metrics.actionCounts);
+      this.actionNanos = sums(metrics.actionNanos);
+      this.actionHistograms = new long[actionCount][];
+      for (int action = 0; action < actionCount; action++) {
+        this.actionHistograms[action] = sums(metrics.actionHistograms[action]);
+      }
+      this.validations = metrics.validations.sum();
+      this.rejections = metrics.rejections.sum();
+      this.validationNanos = metrics.validationNanos.sum();
+      this.validationHistogram = sums(metrics.validationHistogram);
+    }
+
+    /**
+     * Get how often the given status was reported after an action.
+     *
+     * @param status status of the transmission
+     * @return number of actions that ended in that status.
+     */
+    public long getStatusCount(TransmissionStatus status) {
+      return this.statusCounts[status.getCode()];
+    }
+
+    /**
+     * Get how often the given action was applied.
+     *
+     * @param action action taken by the driver
+     * @return number of times it was applied.
+     */
+    public long getActionCount(TransmissionAction action) {
+      return this.actionCounts[action.getCode()];
+    }
+
+    /**
+     * Get the total time spent in the given action.
+     *
+     * @param action action taken by the driver
+     * @return sum of its latencies, in nanoseconds.
+     */
+    public long getActionNanos(TransmissionAction action) {
+      return this.actionNanos[action.getCode()];
+    }
+
+    /**
+     * Get the latency histogram of the given action.
+     *
+     * @param action action taken by the driver
+     * @return count of each power-of-two latency bucket, of length
+     *         {@link TransmissionMetrics#bucketCount}.
+     */
+    public long[] getLatencyHistogram(TransmissionAction action) {
+      return this.actionHistograms[action.getCode()].clone();
+    }
+
+    /**
+     * Get how many speed ranges were validated.
+     *
+     * @return number of validations, including rejected ones.
+     */
+    public long getValidationCount() {
+      return this.validations;
+    }
+
+    /**
+     * Get how many speed ranges were rejected as invalid.
+     *
+     * @return number of failed validations.
+     */
+    public long getRejectionCount() {
+      return this.rejections;
+    }
+
+    /**
+     * Get the total time spent validating speed ranges.
+     *
+     * @return sum of the validation times, in nanoseconds.
+     */
+    public long getValidationNanos() {
+      return this.validationNanos;
+    }
+
+    /**
+     * Get the histogram of validation times.
+     *
+     * @return count of each power-of-two latency bucket, of length
+     *         {@link TransmissionMetrics#bucketCount}.
+     */
+    public long[] getValidationHistogram() {
+      return this.validationHistogram.clone();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package vehicle;
+
+
+/**
+ * This class replays recorded drive cycles, given as arrays of
+ * {@link TransmissionAction} codes, against a transmission. For a
+ * {@link RegularManualTransmission} the whole cycle runs on plain numbers in a tight
+ * loop and only the final state is built as an object; any other transmission is
+ * driven through its methods one action at a time. Either way the result is the
+ * same as calling the matching methods in order.
+ */
+public final class TransmissionReplay {
+
+  private TransmissionReplay() {
+  }
+
+  /**
+   * Apply every action to the transmission, in order.
+   *
+   * @param start   transmission to start from
+   * @param actions action codes, as in {@link TransmissionAction#getCode()}
+   * @return transmission after the last action, or start if there are no actions.
+   * @throws IllegalArgumentException if an action code is unknown
+   */
+  public static ManualTransmission replay(ManualTransmission start, byte[] actions)
+          throws IllegalArgumentException {
+    return replay(start, actions, null);
+  }
+
+  /**
+   * Apply every action to the transmission, in order, recording the state after
+   * each action in the given trace.
+   *
+   * @param start   transmission to start from
+   * @param actions action codes, as in {@link TransmissionAction#getCode()}
+   * @param trace   trace that receives one entry per action, or null for no trace
+   * @return transmission after the last action, or start if there are no actions.
+   * @throws IllegalArgumentException if an action code is unknown, or the trace is
+   *                                  too small to hold every action
+   */
+  public static ManualTransmission replay(ManualTransmission start, byte[] actions,
+                                          ReplayTrace trace) throws IllegalArgumentException {
+    if (trace != null) {
+      if (trace.capacity() < actions.length) {
+        throw new IllegalArgumentException("The trace can hold " + trace.capacity()
+                + " steps but there are " + actions.length + " actions.");
+      }
+      trace.clear();
+    }
+    if (actions.length == 0) {
+      return start;
+    }
+    if (start instanceof RegularManualTransmission) {
+      return replayRegular((RegularManualTransmission) start, actions, trace);
+    }
+    ManualTransmission current = start;
+    for (int step = 0; step < actions.length; step++) {
+      current = TransmissionAction.fromCode(actions[step]).apply(current);
+      if (trace != null) {
+        trace.record(step, current.getSpeed(), current.getGear(),
+                current.getTransmissionStatus().getCode());
+      }
+    }
+    return current;
+  }
+
+  private static ManualTransmission replayRegular(RegularManualTransmission start,
+                                                  byte[] actions, ReplayTrace trace) {
+    GearRangeTable speedRanges = start.getSpeedRanges();
+    int speedChange = start.getSpeedChange();
+    int speed = start.getSpeed();
+    int gear = start.getGear();
+    long state = 0;
+    for (int step = 0; step < actions.length; step++) {
+      state = TransmissionRules.apply(speedRanges, speed, gear, actions[step], speedChange);
+      speed = TransmissionStateCodec.speed(state);
+      gear = TransmissionStateCodec.gear(state);
+      if (trace != null) {
+        trace.record(step, speed, gear, TransmissionStateCodec.statusCode(state));
+      }
+    }
+    return start.initialiseMT(state);
+  }
+}
@@ -0,0 +1,248 @@
+package vehicle;
+
+
+/**
+ * This class holds the rules that decide how speed, gear and status change when
+ * the driver acts on a manual transmission. The rules work on plain numbers and
+ * return the resulting state packed by {@link TransmissionStateCodec}, so every
+ * transmission engine can share them without creating intermediate objects.
+ */
+final class TransmissionRules {
+
+  private static final int initialGear = 1;
+  private static final int unitChange = 1;
+
+  private TransmissionRules() {
+  }
+
+  /**
+   * Apply the action with the given code to a transmission state.
+   *
+   * @param speedRanges speed ranges of every gear
+   * @param speed       current speed of the vehicle
+   * @param gear        current gear of the vehicle
+   * @param action      code of the action, as in {@link TransmissionAction#getCode()}
+   * @param speedChange amount by which a single action changes the speed
+   * @return the resulting packed state.
+   * @throws IllegalArgumentException if the action code is unknown
+   */
+  static long apply(GearRangeTable speedRanges, int speed, int gear, int action,
+                    int speedChange) throws IllegalArgumentException {
+    switch (action) {
+      case 0:
+        return increaseSpeed(speedRanges, speed, gear, speedChange);
+      case 1:
+        return decreaseSpeed(speedRanges, speed, gear, speedChange);
+      case 2:
+        return increaseGear(speedRanges, speed, gear);
+      case 3:
+        return decreaseGear(speedRanges, speed, gear);
+      default:
+        throw new IllegalArgumentException("Unknown action code " + action + ".");
+    }
+  }
+
+  /**
+   * If permitted, increase the speed by a fixed amount or remain same.
+   *
+   * @param speedRanges speed ranges of every gear
+   * @param speed       current speed of the vehicle
+   * @param gear        current gear of the vehicle
+   * @param speedChange amount by which the speed increases
+   * @return the resulting packed state.
+   */
+  static long increaseSpeed(GearRangeTable speedRanges, int speed, int gear, int speedChange) {
+    int highestGear = speedRanges.getGearCount();
+    int nextLow;
+    if (gear != highestGear) {
+      nextLow = speedRanges.getLowSpeed(gear + 1);
+    } else {
+      nextLow = speedRanges.getLowSpeed(gear);
+    }
+    int currentHigh = speedRanges.getHighSpeed(gear);
+
+    // Compared before adding so that a wide range with a large step cannot overflow.
+    boolean aboveMaximum = speed > speedRanges.getMaxSpeed() - speedChange;
+    int updatedSpeed = speed + speedChange;
+    TransmissionStatus status;
+    int currentSpeed = speed;
+    if (aboveMaximum) {
+      status = TransmissionStatus.MAXIMUM_SPEED;
+    } else if (updatedSpeed >= nextLow && updatedSpeed > currentHigh
+            && gear != highestGear) {
+      status = TransmissionStatus.INCREASE_GEAR_FIRST;
+    } else if (updatedSpeed >= nextLow && nextLow < currentHigh
+            && gear != highestGear) {
+      status = TransmissionStatus.MAY_INCREASE_GEAR;
+      currentSpeed = updatedSpeed;
+    } else {
+      status = TransmissionStatus.OK;
+      currentSpeed = updatedSpeed;
+    }
+    return TransmissionStateCodec.pack(currentSpeed, gear, status);
+  }
+
+  /**
+   * If permitted, decrease the speed by a fixed amount or remain same.
+   *
+   * @param speedRanges speed ranges of every gear
+   * @param speed       current speed of the vehicle
+   * @param gear        current gear of the vehicle
+   * @param speedChange amount by which the speed decreases
+   * @return the resulting packed state.
+   */
+  static long decreaseSpeed(GearRangeTable speedRanges, int speed, int gear, int speedChange) {
+    int previousHigh;
+    if (gear != initialGear) {
+      previousHigh = speedRanges.getHighSpeed(gear - 1);
+    } else {
+      previousHigh = speedRanges.getHighSpeed(gear);
+    }
+    int currentLow = speedRanges.getLowSpeed(gear);
+    TransmissionStatus status;
+    int updatedSpeed = speed - speedChange;
+    int currentSpeed = speed;
+    if (updatedSpeed < speedRanges.getMinSpeed()) {
+      status = TransmissionStatus.MINIMUM_SPEED;
+    } else if (updatedSpeed <= previousHigh && updatedSpeed < currentLow
+            && gear != initialGear) {
+      status = TransmissionStatus.DECREASE_GEAR_FIRST;
+    } else if (updatedSpeed <= previousHigh && previousHigh > currentLow
+            && updatedSpeed >= currentLow && gear != initialGear) {
+      status = TransmissionStatus.MAY_DECREASE_GEAR;
+      currentSpeed = updatedSpeed;
+    } else {
+      currentSpeed = updatedSpeed;
+      status = TransmissionStatus.OK;
+    }
+    return TransmissionStateCodec.pack(currentSpeed, gear, status);
+  }
+
+  /**
+   * Increase the speed by the given amount as if it went up one unit at a time,
+   * stopping at the furthest speed allowed in the current gear. The result is the
+   * same as delta increases of one unit each, but takes constant time: the speed
+   * can only rise to the highest speed of the current gear (or the speed limit in
+   * the highest gear), because adjacent ranges must overlap.
+   *
+   * @param speedRanges speed ranges of every gear
+   * @param speed       current speed of the vehicle
+   * @param gear        current gear of the vehicle
+   * @param delta       total increase of the speed, at least 1
+   * @return the resulting packed state.
+   */
+  static long increaseSpeedBy(GearRangeTable speedRanges, int speed, int gear, int delta) {
+    int limit;
+    if (gear == speedRanges.getGearCount()) {
+      limit = speedRanges.getMaxSpeed();
+    } else {
+      limit = speedRanges.getHighSpeed(gear);
+    }
+    if ((long) speed + delta <= limit) {
+      return increaseSpeed(speedRanges, speed + delta - unitChange, gear, unitChange);
+    }
+    return increaseSpeed(speedRanges, Math.max(speed, limit), gear, unitChange);
+  }
+
+  /**
+   * Decrease the speed by the given amount as if it went down one unit at a time,
+   * stopping at the lowest speed allowed in the current gear. The result is the
+   * same as delta decreases of one unit each, but takes constant time.
+   *
+   * @param speedRanges speed ranges of every gear
+   * @param speed       current speed of the vehicle
+   * @param gear        current gear of the vehicle
+   * @param delta       total decrease of the speed, at least 1
+   * @return the resulting packed state.
+   */
+  static long decreaseSpeedBy(GearRangeTable speedRanges, int speed, int gear, int delta) {
+    int limit;
+    if (gear == initialGear) {
+      limit = speedRanges.getMinSpeed();
+    } else {
+      limit = speedRanges.getLowSpeed(gear);
+    }
+    if ((long) speed - delta >= limit) {
+      return decreaseSpeed(speedRanges, speed - delta + unitChange, gear, unitChange);
+    }
+    return decreaseSpeed(speedRanges, Math.min(speed, limit), gear, unitChange);
+  }
+
+  /**
+   * If permitted, increase the gear by one or stay at the same gear.
+   *
+   * @param speedRanges speed ranges of every gear
+   * @param speed       current speed of the vehicle
+   * @param gear        current gear of the vehicle
+   * @return the resulting packed state.
+   */
+  static long increaseGear(GearRangeTable speedRanges, int speed, int gear) {
+    TransmissionStatus status;
+    int currentGear = gear;
+    if (gear == speedRanges.getGearCount()) {
+      status = TransmissionStatus.MAXIMUM_GEAR;
+    } else if (speedRanges.getLowSpeed(gear + 1) > speed) {
+      status = TransmissionStatus.INCREASE_SPEED_FIRST;
+    } else {
+      status = TransmissionStatus.OK;
+      currentGear = gear + 1;
+    }
+    return TransmissionStateCodec.pack(speed, currentGear, status);
+  }
+
+  /**
+   * If permitted, decrease the gear by one or stay at the same gear.
+   *
+   * @param speedRanges speed ranges of every gear
+   * @param speed       current speed of the vehicle
+   * @param gear        current gear of the vehicle
+   * @return the resulting packed state.
+   */
+  static long decreaseGear(GearRangeTable speedRanges, int speed, int gear) {
+    TransmissionStatus status;
+    int currentGear = gear;
+    if (gear == initialGear) {
+      status = TransmissionStatus.MINIMUM_GEAR;
+    } else if (speed > speedRanges.getHighSpeed(gear - 1)) {
+      status = TransmissionStatus.DECREASE_SPEED_FIRST;
+    } else {
+      status = TransmissionStatus.OK;
+      currentGear = gear - 1;
+    }
+    return TransmissionStateCodec.pack(speed, currentGear, status);
+  }
+
+  /**
+   * Change the speed of an automatic transmission by a signed amount in one step.
+   * The gear is kept while the new speed stays in its range, and otherwise moved
+   * straight to the highest gear that can run at the new speed. Speeds beyond the
+   * speed range of the vehicle either leave the state unchanged or, when clamped,
+   * stop at the nearest limit; both report the matching limit status.
+   *
+   * @param speedRanges speed ranges of every gear
+   * @param speed       current speed of the vehicle
+   * @param gear        current gear of the vehicle
+   * @param change      signed change of the speed
+   * @param clamp       whether a change beyond the speed range stops at its limit
+   * @return the resulting packed state.
+   */
+  static long changeSpeedAutomatically(GearRangeTable speedRanges, int speed, int gear,
+                                       long change, boolean clamp) {
+    long updatedSpeed = speed + change;
+    TransmissionStatus status = TransmissionStatus.OK;
+    if (updatedSpeed > speedRanges.getMaxSpeed()) {
+      status = TransmissionStatus.MAXIMUM_SPEED;
+      updatedSpeed = clamp ? speedRanges.getMaxSpeed() : speed;
+    } else if (updatedSpeed < speedRanges.getMinSpeed()) {
+      status = TransmissionStatus.MINIMUM_SPEED;
+      updatedSpeed = clamp ? speedRanges.getMinSpeed() : speed;
+    }
+    int currentSpeed = (int) updatedSpeed;
+    int currentGear = gear;
+    if (currentSpeed < speedRanges.getLowSpeed(gear)
+            || currentSpeed > speedRanges.getHighSpeed(gear)) {
+      currentGear = speedRanges.getGearFor(currentSpeed);
+    }
+    return TransmissionStateCodec.pack(currentSpeed, currentGear, status);
+  }
+}
@@ -0,0 +1,287 @@
+package vehicle;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+
+/**
+ * This class represents a small TCP server that lets many clients each drive their
+ * own vehicle. Every connection is a session with its own transmission, starting
+ * in the initial state, and is served by its own thread: a virtual thread when the
+ * JVM provides them, a pooled platform thread otherwise. The protocol is line based:
+ * <ul>
+ * <li>a request line holds zero or more commands, {@code +S}, {@code -S}, {@code +G}
+ * or {@code -G}, optionally separated by spaces, applied in order; </li>
+ * <li>{@code R} on its own puts the vehicle back in its initial state; </li>
+ * <li>the reply is one line with the speed, gear and status name after the last
+ * command, such as {@code 21 2 OK}; an empty request line reports the current
+ * state; </li>
+ * <li>a line with an unknown command changes nothing and is answered with
+ * {@code ERR} followed by a message. </li>
+ * </ul>
+ * A request line may hold at most {@value #maxLineLength} characters; a longer line
+ * is answered with {@code ERR} and ends the session.
+ * The server only listens on the loopback interface.
+ */
+public final class TransmissionServer implements Closeable {
+
+  /**
+   * Largest number of characters of a request line, without its terminator.
+   */
+  public static final int maxLineLength = 4096;
+
+  private static final int backlog = 4096;
+  private static final int endOfStream = -1;
+  private static final int lineTooLong = -2;
+  private static final long minAcceptBackoffMillis = 10;
+  private static final long maxAcceptBackoffMillis = 1000;
+
+  private final GearRangeTable speedRanges;
+  private final ServerSocket serverSocket;
+  private final ExecutorService sessions;
+  private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+  private final Thread acceptor;
+  private volatile boolean closed;
+
+  private TransmissionServer(GearRangeTable speedRanges, ServerSocket serverSocket) {
+    this.speedRanges = speedRanges;
+    this.serverSocket = serverSocket;
+    this.sessions = newSessionExecutor();
+    this.acceptor = new Thread(this::acceptSessions, "transmission-server-accept");
+    this.acceptor.setDaemon(true);
+  }
+
+  /**
+   * Start a server on the given loopback port whose sessions drive vehicles with
+   * the given speed ranges.
+   *
+   * @param speedRanges validated speed ranges of every session's vehicle
+   * @param port        port to listen on, or 0 for any free port
+   * @return the running server.
+   * @throws IOException if the port cannot be bound
+   */
+  public static TransmissionServer start(GearRangeTable speedRanges, int port)
+          throws IOException {
+    ServerSocket serverSocket = new ServerSocket();
+    try {
+      serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), backlog);
+    } catch (IOException e) {
+      serverSocket.close();
+      throw e;
+    }
+    TransmissionServer server = new TransmissionServer(speedRanges, serverSocket);
+    server.acceptor.start();
+    return server;
+  }
+
+  /**
+   * Get the port this server listens on.
+   *
+   * @return local port of the server.
+   */
+  public int getPort() {
+    return this.serverSocket.getLocalPort();
+  }
+
+  /**
+   * Get the number of sessions currently connected.
+   *
+   * @return number of open sessions.
+   */
+  public int getSessionCount() {
+    return this.openSockets.size();
+  }
+
+  /**
+   * Stop accepting sessions and close every open session.
+   *
+   * @throws IOException if the server socket cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    this.closed = true;
+    try {
+      this.serverSocket.close();
+    } finally {
+      for (Socket socket : this.openSockets) {
+        closeQuietly(socket);
+      }
+      this.sessions.shutdownNow();
+    }
+  }
+
+  /**
+   * Apply one request line to a session's transmission.
+   *
+   * @param transmission transmission of the session
+   * @param line         request line
+   * @return reply line, without the line terminator.
+   */
+  static String handle(MutableManualTransmission transmission, String line) {
+    String request = line.trim();
+    if ("R".equals(request)) {
+      transmission.reset();
+      return reply(transmission);
+    }
+    int length = 0;
+    byte[] actions = new byte[request.length() / 2];
+    for (int i = 0; i < request.length(); i++) {
+      char sign = request.charAt(i);
+      if (sign == ' ') {
+        continue;
+      }
+      char target = i + 1 < request.length() ? request.charAt(i + 1) : ' ';
+      int action = parse(sign, target);
+      if (action < 0) {
+        return "ERR Unknown command " + request.substring(i, Math.min(i + 2,
+                request.length())) + ".";
+      }
+      actions[length++] = (byte) action;
+      i++;
+    }
+    for (int i = 0; i < length; i++) {
+      transmission.step(actions[i]);
+    }
+    return reply(transmission);
+  }
+
+  private static int parse(char sign, char target) {
+    if (target == 'S') {
+      return sign == '+' ? 0 : sign == '-' ? 1 : -1;
+    }
+    if (target == 'G') {
+      return sign == '+' ? 2 : sign == '-' ? 3 : -1;
+    }
+    return -1;
+  }
+
+  private static String reply(MutableManualTransmission transmission) {
+    return transmission.getSpeed() + " " + transmission.getGear() + " "
+            + transmission.getTransmissionStatus().name();
+  }
+
+  /**
+   * Accept failures while the server is open, such as running out of file
+   * descriptors, are retried after a pause that doubles up to one second.
+   */
+  private void acceptSessions() {
+    long backoffMillis = minAcceptBackoffMillis;
+    while (!this.closed) {
+      Socket socket;
+      try {
+        socket = this.serverSocket.accept();
+      } catch (IOException e) {
+        if (this.closed) {
+          return;
+        }
+        try {
+          Thread.sleep(backoffMillis);
+        } catch (InterruptedException interrupted) {
+          return;
+        }
+        backoffMillis = Math.min(2 * backoffMillis, maxAcceptBackoffMillis);
+        continue;
+      }
+      backoffMillis = minAcceptBackoffMillis;
+      this.openSockets.add(socket);
+      try {
+        this.sessions.execute(() -> serve(socket));
+      } catch (RejectedExecutionException e) {
+        this.openSockets.remove(socket);
+        closeQuietly(socket);
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    MutableManualTransmission transmission = new MutableManualTransmission(this.speedRanges);
+    try (Socket session = socket;
+         BufferedReader in = new BufferedReader(new InputStreamReader(
+                 session.getInputStream(), StandardCharsets.US_ASCII));
+         Writer out = new BufferedWriter(new OutputStreamWriter(
+                 session.getOutputStream(), StandardCharsets.US_ASCII))) {
+      session.setTcpNoDelay(true);
+      StringBuilder line = new StringBuilder();
+      int length;
+      while ((length = readLine(in, line)) != endOfStream) {
+        if (length == lineTooLong) {
+          out.write("ERR Request line is longer than " + maxLineLength + " characters.\n");
+          break;
+        }
+        out.write(handle(transmission, line.toString()));
+        out.write('\n');
+        if (!in.ready()) {
+          out.flush();
+        }
+      }
+      out.flush();
+    } catch (IOException e) {
+      // The client went away or the server is closing; the session ends either way.
+    } finally {
+      this.openSockets.remove(socket);
+    }
+  }
+
+  /**
+   * Read one line into the builder, dropping its terminator, a line feed optionally
+   * preceded by a carriage return. Reading stops as soon as the line gets too long,
+   * so a client cannot make the server buffer more than one line.
+   */
+  private static int readLine(BufferedReader in, StringBuilder line) throws IOException {
+    line.setLength(0);
+    int c;
+    while ((c = in.read()) != '\n') {
+      if (c < 0) {
+        return line.length() == 0 ? endOfStream : line.length();
+      }
+      if (line.length() == maxLineLength + 1) {
+        return lineTooLong;
+      }
+      line.append((char) c);
+    }
+    if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+      line.setLength(line.length() - 1);
+    }
+    return line.length() > maxLineLength ? lineTooLong : line.length();
+  }
+
+  private static void closeQuietly(Socket socket) {
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // Nothing is left to do with a socket that cannot even be closed.
+    }
+  }
+
+  /**
+   * Use a virtual thread per session when the JVM has them (Java 21 or later),
+   * looked up by reflection so that the server still builds for Java 11.
+   */
+  private static ExecutorService newSessionExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+              .invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "transmission-session");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package vehicle;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * This class represents a cache of canonical transmission states for one vehicle
+ * configuration. A fixed gear configuration can only ever be in a finite number of
+ * states (speed, gear and status), so instead of creating a new object on every
+ * transition, transmissions obtained from {@link #initial()} return the shared
+ * instance of the resulting state. Once the states a simulation visits have been
+ * built, transitions allocate nothing, and two equal states from the cache are
+ * usually the same object.
+ *
+ * <p>States are built lazily and kept in a fixed number of slots. A state may live
+ * in any of the four slots following the one chosen by its hash. When a new state
+ * finds all four taken, it evicts the state in its first slot, so memory stays
+ * bounded even for very wide speed ranges; an evicted state is simply rebuilt the
+ * next time it is needed. Objects of this class are
+ * thread-safe.
+ */
+public final class TransmissionStateCache {
+
+  private static final int defaultCapacity = 1 << 16;
+  private static final int maxCapacity = 1 << 30;
+  private static final int initialGear = 1;
+  private static final int probeLength = 4;
+
+  private final GearRangeTable speedRanges;
+  private final int speedChange;
+  private final RegularManualTransmission[] slots;
+  private final int mask;
+  private final RegularManualTransmission initialState;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Constructs a cache for the given speed ranges with a speed change of 1, holding
+   * up to 65536 states or one slot per possible state, whichever is smaller.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   */
+  public TransmissionStateCache(GearRangeTable speedRanges) {
+    this(speedRanges, 1, (int) Math.min(defaultCapacity, stateCount(speedRanges)));
+  }
+
+  /**
+   * Constructs a cache for the given speed ranges and speed change.
+   *
+   * @param speedRanges validated speed ranges of every gear
+   * @param speedChange amount by which a single action changes the speed
+   * @param capacity    largest number of states kept, rounded up to a power of two
+   * @throws IllegalArgumentException if the speed change or the capacity is not positive,
+   *                                  or the capacity is larger than 2^30
+   */
+  public TransmissionStateCache(GearRangeTable speedRanges, int speedChange, int capacity)
+          throws IllegalArgumentException {
+    if (speedChange <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    if (capacity <= 0 || capacity > maxCapacity) {
+      throw new IllegalArgumentException("Cache capacity should be between 1 and "
+              + maxCapacity + ".");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.speedRanges = speedRanges;
+    this.speedChange = speedChange;
+    this.slots = new RegularManualTransmission[size];
+    this.mask = size - 1;
+    this.initialState = new RegularManualTransmission(speedRanges, speedChange, this,
+            speedRanges.getMinSpeed(), initialGear, TransmissionStatus.OK);
+  }
+
+  /**
+   * Get the transmission in its initial state. Every transmission reached from it
+   * through its transitions comes from this cache.
+   *
+   * @return the canonical initial state.
+   */
+  public ManualTransmission initial() {
+    return this.initialState;
+  }
+
+  /**
+   * Get the number of slots of this cache, the largest number of states it keeps.
+   *
+   * @return capacity of the cache.
+   */
+  public int getCapacity() {
+    return this.slots.length;
+  }
+
+  /**
+   * Get the number of transitions that found their state in the cache.
+   *
+   * @return number of hits.
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Get the number of transitions that had to build their state.
+   *
+   * @return number of misses.
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Get the number of states that were replaced by another state needing their slot.
+   *
+   * @return number of evictions.
+   */
+  public long getEvictions() {
+    return this.evictions.sum();
+  }
+
+  /**
+   * Get the canonical instance of the given packed state, building it if needed.
+   *
+   * @param state packed state, as built by {@link TransmissionStateCodec}
+   * @return the cached transmission in that state.
+   */
+  RegularManualTransmission get(long state) {
+    int speed = TransmissionStateCodec.speed(state);
+    int gear = TransmissionStateCodec.gear(state);
+    TransmissionStatus status = TransmissionStateCodec.status(state);
+    int home = slotOf(state);
+    int index = home;
+    for (int probe = 0; probe < probeLength; probe++) {
+      index = (home + probe) & this.mask;
+      RegularManualTransmission cached = this.slots[index];
+      if (cached == null) {
+        break;
+      }
+      if (cached.getSpeed() == speed && cached.getGear() == gear
+              && cached.getTransmissionStatus() == status) {
+        this.hits.increment();
+        return cached;
+      }
+      if (probe == probeLength - 1) {
+        index = home;
+        this.evictions.increment();
+      }
+    }
+    this.misses.increment();
+    RegularManualTransmission created = new RegularManualTransmission(this.speedRanges,
+            this.speedChange, this, speed, gear, status);
+    this.slots[index] = created;
+    return created;
+  }
+
+  private int slotOf(long state) {
+    long hash = state;
+    hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+    hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return (int) (hash ^ (hash >>> 33)) & this.mask;
+  }
+
+  private static long stateCount(GearRangeTable speedRanges) {
+    return ((long) speedRanges.getMaxSpeed() - speedRanges.getMinSpeed() + 1)
+            * speedRanges.getGearCount() * TransmissionStatus.values().length;
+  }
+}
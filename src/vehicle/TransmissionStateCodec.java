@@ -0,0 +1,230 @@
+package vehicle;
+
+
+/**
+ * This class packs the state of a transmission, its speed, gear and status code,
+ * into a single long so that transitions can be computed without creating objects.
+ * The speed takes the upper 32 bits, the gear the next 16 bits and the status code
+ * the lowest 8 bits; bits 24 to 31 are always 0 in a packed state and may be used
+ * by callers to carry extra data alongside it.
+ *
+ * <p>Packed states can be kept in a long[], an off-heap buffer or an atomic variable,
+ * and advanced with {@link #step(GearRangeTable, long, int)} against a shared
+ * {@link GearRangeTable}, exactly as the matching methods of
+ * {@link RegularManualTransmission} would change them.
+ */
+public final class TransmissionStateCodec {
+
+  private static final int initialGear = 1;
+  private static final int defaultSpeedChange = 1;
+  private static final int speedShift = 32;
+  private static final int gearShift = 8;
+  private static final long gearMask = 0xFFFFL;
+  private static final long statusMask = 0xFFL;
+
+  private TransmissionStateCodec() {
+  }
+
+  /**
+   * Pack a transmission state into a long.
+   *
+   * @param speed  speed of the vehicle
+   * @param gear   gear of the vehicle
+   * @param status status of the vehicle
+   * @return the packed state.
+   */
+  public static long pack(int speed, int gear, TransmissionStatus status) {
+    return pack(speed, gear, status.getCode());
+  }
+
+  /**
+   * Pack a transmission state into a long.
+   *
+   * @param speed      speed of the vehicle
+   * @param gear       gear of the vehicle
+   * @param statusCode code of the status of the vehicle
+   * @return the packed state.
+   */
+  public static long pack(int speed, int gear, int statusCode) {
+    return ((long) speed << speedShift)
+            | ((gear & gearMask) << gearShift)
+            | (statusCode & statusMask);
+  }
+
+  /**
+   * Pack the state of a transmission into a long.
+   *
+   * @param transmission transmission in any state
+   * @return the packed state.
+   */
+  public static long pack(ManualTransmission transmission) {
+    return pack(transmission.getSpeed(), transmission.getGear(),
+            transmission.getTransmissionStatus());
+  }
+
+  /**
+   * Get the packed initial state of a vehicle: the lowest speed in the first gear.
+   *
+   * @param speedRanges speed ranges of every gear
+   * @return the packed initial state.
+   */
+  public static long initial(GearRangeTable speedRanges) {
+    return pack(speedRanges.getMinSpeed(), initialGear, TransmissionStatus.OK);
+  }
+
+  /**
+   * Apply an action to a packed state whose speed changes by one unit per action.
+   *
+   * @param speedRanges speed ranges of every gear, shared by all states
+   * @param state       packed state built for the same speed ranges
+   * @param action      code of the action, as in {@link TransmissionAction#getCode()}
+   * @return the resulting packed state.
+   * @throws IllegalArgumentException if the action code is unknown, or the state does
+   *                                  not fit the speed ranges
+   */
+  public static long step(GearRangeTable speedRanges, long state, int action)
+          throws IllegalArgumentException {
+    return step(speedRanges, state, action, defaultSpeedChange);
+  }
+
+  /**
+   * Apply an action to a packed state whose speed changes by the given amount.
+   *
+   * @param speedRanges speed ranges of every gear, shared by all states
+   * @param state       packed state built for the same speed ranges
+   * @param action      code of the action, as in {@link TransmissionAction#getCode()}
+   * @param speedChange amount by which a single action changes the speed
+   * @return the resulting packed state.
+   * @throws IllegalArgumentException if the action code is unknown, or the state does
+   *                                  not fit the speed ranges
+   */
+  public static long step(GearRangeTable speedRanges, long state, int action,
+                          int speedChange) throws IllegalArgumentException {
+    return stepUnchecked(speedRanges, checkState(speedRanges, state), action, speedChange);
+  }
+
+  /**
+   * Apply an action to a packed state known to fit the speed ranges, such as one
+   * returned by an earlier step, without checking its speed and gear.
+   *
+   * @param speedRanges speed ranges of every gear, shared by all states
+   * @param state       packed state built for the same speed ranges
+   * @param action      code of the action, as in {@link TransmissionAction#getCode()}
+   * @param speedChange amount by which a single action changes the speed
+   * @return the resulting packed state.
+   * @throws IllegalArgumentException if the action code is unknown
+   */
+  static long stepUnchecked(GearRangeTable speedRanges, long state, int action,
+                            int speedChange) throws IllegalArgumentException {
+    return TransmissionRules.apply(speedRanges, speed(state), gear(state), action, speedChange);
+  }
+
+  /**
+   * Rebuild the transmission of a packed state, whose speed changes by one unit
+   * per action.
+   *
+   * @param speedRanges speed ranges the state was built for
+   * @param state       packed state
+   * @return transmission in that state.
+   * @throws IllegalArgumentException if the state holds an unknown status code, or does
+   *                                  not fit the speed ranges
+   */
+  public static ManualTransmission unpack(GearRangeTable speedRanges, long state)
+          throws IllegalArgumentException {
+    return unpack(speedRanges, state, defaultSpeedChange);
+  }
+
+  /**
+   * Rebuild the transmission of a packed state.
+   *
+   * @param speedRanges speed ranges the state was built for
+   * @param state       packed state
+   * @param speedChange amount by which a single action changes the speed
+   * @return transmission in that state.
+   * @throws IllegalArgumentException if the state holds an unknown status code, does not
+   *                                  fit the speed ranges, or the speed change is not
+   *                                  positive
+   */
+  public static ManualTransmission unpack(GearRangeTable speedRanges, long state,
+                                          int speedChange) throws IllegalArgumentException {
+    if (speedChange <= 0) {
+      throw new IllegalArgumentException("Speed change should be positive.");
+    }
+    return unpackUnchecked(speedRanges, checkState(speedRanges, state), speedChange);
+  }
+
+  /**
+   * Rebuild the transmission of a packed state known to fit the speed ranges, without
+   * checking its speed and gear.
+   *
+   * @param speedRanges speed ranges the state was built for
+   * @param state       packed state
+   * @param speedChange amount by which a single action changes the speed, positive
+   * @return transmission in that state.
+   * @throws IllegalArgumentException if the state holds an unknown status code
+   */
+  static ManualTransmission unpackUnchecked(GearRangeTable speedRanges, long state,
+                                            int speedChange) throws IllegalArgumentException {
+    return new RegularManualTransmission(speedRanges, speedChange, speed(state), gear(state),
+            status(state));
+  }
+
+  /**
+   * Check that the gear of a packed state exists in the speed ranges and that its
+   * speed is within the speed range of the vehicle.
+   */
+  private static long checkState(GearRangeTable speedRanges, long state)
+          throws IllegalArgumentException {
+    int gear = gear(state);
+    if (gear < 1 || gear > speedRanges.getGearCount()) {
+      throw new IllegalArgumentException("Gear " + gear + " is outside the range 1-"
+              + speedRanges.getGearCount() + ".");
+    }
+    int speed = speed(state);
+    if (speed < speedRanges.getMinSpeed() || speed > speedRanges.getMaxSpeed()) {
+      throw new IllegalArgumentException("Speed " + speed + " is outside the range "
+              + speedRanges.getMinSpeed() + "-" + speedRanges.getMaxSpeed() + ".");
+    }
+    return state;
+  }
+
+  /**
+   * Get the speed of a packed state.
+   *
+   * @param state packed state
+   * @return speed of the vehicle.
+   */
+  public static int speed(long state) {
+    return (int) (state >> speedShift);
+  }
+
+  /**
+   * Get the gear of a packed state.
+   *
+   * @param state packed state
+   * @return gear of the vehicle.
+   */
+  public static int gear(long state) {
+    return (int) ((state >>> gearShift) & gearMask);
+  }
+
+  /**
+   * Get the status code of a packed state.
+   *
+   * @param state packed state
+   * @return status code of the vehicle.
+   */
+  public static int statusCode(long state) {
+    return (int) (state & statusMask);
+  }
+
+  /**
+   * Get the status of a packed state.
+   *
+   * @param state packed state
+   * @return status of the vehicle.
+   */
+  public static TransmissionStatus status(long state) {
+    return TransmissionStatus.fromCode(statusCode(state));
+  }
+}
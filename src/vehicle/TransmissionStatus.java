@@ -0,0 +1,106 @@
+package vehicle;
+
+
+/**
+ * This enum represents every status a transmission can report after an action.
+ * Each status carries the exact message returned by {@link ManualTransmission#getStatus()}
+ * and a one-byte code for compact storage. Codes follow the declaration order,
+ * so new statuses must only ever be added at the end.
+ */
+public enum TransmissionStatus {
+
+  /**
+   * The speed or the gear was changed successfully.
+   */
+  OK("OK: everything is OK."),
+
+  /**
+   * The speed was increased and is now within the range of the next gear.
+   */
+  MAY_INCREASE_GEAR("OK: you may increase the gear."),
+
+  /**
+   * The speed was decreased and is now within the range of the previous gear.
+   */
+  MAY_DECREASE_GEAR("OK: you may decrease the gear."),
+
+  /**
+   * The speed is too high for the current gear.
+   */
+  INCREASE_GEAR_FIRST("Cannot increase speed, increase gear first."),
+
+  /**
+   * The speed is too low for the current gear.
+   */
+  DECREASE_GEAR_FIRST("Cannot decrease speed, decrease gear first."),
+
+  /**
+   * The current speed is too low for the next gear.
+   */
+  INCREASE_SPEED_FIRST("Cannot increase gear, increase speed first."),
+
+  /**
+   * The current speed is too high for the previous gear.
+   */
+  DECREASE_SPEED_FIRST("Cannot decrease gear, decrease speed first."),
+
+  /**
+   * The speed is already at the speed limit of the vehicle.
+   */
+  MAXIMUM_SPEED("Cannot increase speed. Reached maximum speed."),
+
+  /**
+   * The speed is already at the lowest speed of the vehicle.
+   */
+  MINIMUM_SPEED("Cannot decrease speed. Reached minimum speed."),
+
+  /**
+   * The gear is already the highest gear.
+   */
+  MAXIMUM_GEAR("Cannot increase gear. Reached maximum gear."),
+
+  /**
+   * The gear is already the first gear.
+   */
+  MINIMUM_GEAR("Cannot decrease gear. Reached minimum gear.");
+
+  private static final TransmissionStatus[] byCode = values();
+
+  private final String message;
+
+  TransmissionStatus(String message) {
+    this.message = message;
+  }
+
+  /**
+   * Get the status message reported for this status.
+   *
+   * @return status message as returned by getStatus.
+   */
+  public String getMessage() {
+    return this.message;
+  }
+
+  /**
+   * Get the compact code of this status.
+   *
+   * @return code of this status, between 0 and the number of statuses - 1.
+   */
+  public byte getCode() {
+    return (byte) ordinal();
+  }
+
+  /**
+   * Get the status with the given compact code.
+   *
+   * @param code code as returned by getCode
+   * @return status with that code.
+   * @throws IllegalArgumentException if no status has that code
+   */
+  public static TransmissionStatus fromCode(int code) throws IllegalArgumentException {
+    if (code < 0 || code >= byCode.length) {
+      throw new IllegalArgumentException("Unknown status code " + code + ".");
+    }
+    return byCode[code];
+  }
+}
@@ -0,0 +1,137 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import vehicle.AutomaticTransmission;
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents AutomaticTransmission class test file.
+ */
+
+public class AutomaticTransmissionTest {
+
+  private GearRangeTable table;
+  private ManualTransmission aT;
+
+  @Before
+  public void setUp() {
+    table = new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+    aT = new AutomaticTransmission(table);
+  }
+
+  @Test
+  public void testInitialState() {
+    assertEquals(0, aT.getSpeed());
+    assertEquals(1, aT.getGear());
+    assertEquals("OK: everything is OK.", aT.getStatus());
+  }
+
+  @Test
+  public void testInvalidInputs() {
+    String actualMessage = null;
+    try {
+      new AutomaticTransmission(0, 20, 21, 40, 41, 60, 61, 80, 81, 100);
+    } catch (IllegalArgumentException e) {
+      actualMessage = e.getMessage();
+    }
+    assertEquals("Given ranges shouldn't be non-overlapping.", actualMessage);
+  }
+
+  @Test
+  public void testShiftsUpWhileAccelerating() {
+    ManualTransmission current = aT;
+    for (int speed = 1; speed <= 100; speed++) {
+      current = current.increaseSpeed();
+      assertEquals(speed, current.getSpeed());
+      assertEquals(TransmissionStatus.OK, current.getTransmissionStatus());
+    }
+    assertEquals(5, current.getGear());
+    current = current.increaseSpeed();
+    assertEquals(100, current.getSpeed());
+    assertEquals(TransmissionStatus.MAXIMUM_SPEED, current.getTransmissionStatus());
+  }
+
+  @Test
+  public void testKeepsGearInOverlap() {
+    ManualTransmission current = aT.increaseSpeedBy(20);
+    assertEquals(1, current.getGear());
+    current = current.increaseSpeed();
+    assertEquals(21, current.getSpeed());
+    assertEquals(2, current.getGear());
+    current = current.decreaseSpeedBy(5);
+    assertEquals(16, current.getSpeed());
+    assertEquals(2, current.getGear());
+    current = current.decreaseSpeed();
+    assertEquals(15, current.getSpeed());
+    assertEquals(2, current.getGear());
+    current = current.decreaseSpeed();
+    assertEquals(1, current.getGear());
+  }
+
+  @Test
+  public void testJumpsAcrossGears() {
+    ManualTransmission current = aT.increaseSpeedBy(90);
+    assertEquals(90, current.getSpeed());
+    assertEquals(5, current.getGear());
+    current = current.decreaseSpeedBy(80);
+    assertEquals(10, current.getSpeed());
+    assertEquals(1, current.getGear());
+    current = current.increaseSpeedBy(500);
+    assertEquals(100, current.getSpeed());
+    assertEquals(TransmissionStatus.MAXIMUM_SPEED, current.getTransmissionStatus());
+    current = current.decreaseSpeedBy(500);
+    assertEquals(0, current.getSpeed());
+    assertEquals(1, current.getGear());
+    assertEquals(TransmissionStatus.MINIMUM_SPEED, current.getTransmissionStatus());
+  }
+
+  @Test
+  public void testManualGearChange() {
+    ManualTransmission current = aT.increaseSpeedBy(18).increaseGear();
+    assertEquals(2, current.getGear());
+    assertEquals(TransmissionStatus.OK, current.getTransmissionStatus());
+    current = current.increaseGear();
+    assertEquals(2, current.getGear());
+    assertEquals(TransmissionStatus.INCREASE_SPEED_FIRST, current.getTransmissionStatus());
+  }
+
+  @Test
+  public void testNeverAsksForGearChange() {
+    Random random = new Random(5);
+    ManualTransmission current = new AutomaticTransmission(table, 7);
+    for (int step = 0; step < 10_000; step++) {
+      int action = random.nextInt(4);
+      if (action == 0) {
+        current = current.increaseSpeed();
+      } else if (action == 1) {
+        current = current.decreaseSpeed();
+      } else if (action == 2) {
+        current = current.increaseGear();
+      } else {
+        current = current.decreaseGear();
+      }
+      int gear = current.getGear();
+      assertTrue(table.getLowSpeed(gear) <= current.getSpeed()
+              && current.getSpeed() <= table.getHighSpeed(gear));
+      if (action < 2) {
+        assertNotEquals(TransmissionStatus.INCREASE_GEAR_FIRST, current.getTransmissionStatus());
+        assertNotEquals(TransmissionStatus.DECREASE_GEAR_FIRST, current.getTransmissionStatus());
+        assertNotEquals(TransmissionStatus.MAY_INCREASE_GEAR, current.getTransmissionStatus());
+        assertNotEquals(TransmissionStatus.MAY_DECREASE_GEAR, current.getTransmissionStatus());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSpeedChange() {
+    new AutomaticTransmission(table, 0);
+  }
+}
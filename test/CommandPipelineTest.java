@@ -0,0 +1,193 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import vehicle.AutomaticTransmission;
+import vehicle.CommandPipeline;
+import vehicle.GearRangeTable;
+import vehicle.InProcessTransport;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.ReplayTrace;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionReplay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This class represents CommandPipeline class test file.
+ */
+
+public class CommandPipelineTest {
+
+  private static final GearRangeTable table =
+          new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+
+  @Test
+  public void testIntermediateStatesMatchMethods() throws Exception {
+    try (CommandPipeline pipeline = new CommandPipeline(new RegularManualTransmission(table),
+            4)) {
+      byte[] actions = RandomActions.of(3, 200);
+      CommandPipeline.Result result = pipeline.submit(actions, true).get();
+      ManualTransmission expected = new RegularManualTransmission(table);
+      ReplayTrace trace = result.getTrace();
+      assertEquals(200, trace.length());
+      for (int step = 0; step < actions.length; step++) {
+        expected = TransmissionAction.fromCode(actions[step]).apply(expected);
+        assertEquals(expected.getSpeed(), trace.getSpeed(step));
+        assertEquals(expected.getGear(), trace.getGear(step));
+        assertEquals(expected.getTransmissionStatus(), trace.getTransmissionStatus(step));
+      }
+      assertEquals(expected, result.getState());
+      assertEquals(expected.getTransmissionStatus(), result.getTransmissionStatus());
+      assertEquals(200, result.getActionCount());
+      assertEquals(expected, pipeline.getState());
+    }
+  }
+
+  @Test
+  public void testFinalStateOnly() throws Exception {
+    try (CommandPipeline pipeline = new CommandPipeline(new RegularManualTransmission(table),
+            4)) {
+      CommandPipeline.Result result = pipeline.submit(new byte[] {0, 0, 0}, false).get();
+      assertNull(result.getTrace());
+      assertEquals(3, result.getState().getSpeed());
+    }
+  }
+
+  @Test
+  public void testBatchesApplyInQueueOrder() throws Exception {
+    ManualTransmission start = new AutomaticTransmission(table);
+    Random random = new Random(11);
+    List<byte[]> batches = new ArrayList<>();
+    List<CompletableFuture<CommandPipeline.Result>> results = new ArrayList<>();
+    try (CommandPipeline pipeline = new CommandPipeline(start, 2)) {
+      for (int i = 0; i < 100; i++) {
+        byte[] actions = RandomActions.of(random, random.nextInt(10));
+        batches.add(actions);
+        results.add(pipeline.submit(actions, false));
+      }
+    }
+    ManualTransmission expected = start;
+    for (int i = 0; i < batches.size(); i++) {
+      expected = TransmissionReplay.replay(expected, batches.get(i));
+      assertEquals(expected, results.get(i).get().getState());
+    }
+  }
+
+  @Test
+  public void testEmptyBatchKeepsState() throws Exception {
+    ManualTransmission start = new RegularManualTransmission(table);
+    try (CommandPipeline pipeline = new CommandPipeline(start, 1)) {
+      assertSame(start, pipeline.submit(new byte[0], true).get().getState());
+    }
+  }
+
+  @Test
+  public void testBatchIsCopiedOnSubmit() throws Exception {
+    try (CommandPipeline pipeline = new CommandPipeline(new RegularManualTransmission(table),
+            1)) {
+      byte[] actions = {0, 0};
+      CompletableFuture<CommandPipeline.Result> result = pipeline.submit(actions, false);
+      actions[0] = 1;
+      actions[1] = 1;
+      assertEquals(2, result.get().getState().getSpeed());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownActionRejected() throws Exception {
+    try (CommandPipeline pipeline = new CommandPipeline(new RegularManualTransmission(table),
+            1)) {
+      pipeline.submit(new byte[] {0, 4}, false);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroCapacity() {
+    new CommandPipeline(new RegularManualTransmission(table), 0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSubmitAfterClose() throws Exception {
+    CommandPipeline pipeline = new CommandPipeline(new RegularManualTransmission(table), 1);
+    pipeline.close();
+    pipeline.submit(new byte[] {0}, false);
+  }
+
+  @Test
+  public void testTrySubmitRefusesWhenFull() throws Exception {
+    try (CommandPipeline pipeline = new CommandPipeline(new RegularManualTransmission(table),
+            1)) {
+      int refused = 0;
+      List<CompletableFuture<CommandPipeline.Result>> accepted = new ArrayList<>();
+      byte[] longBatch = RandomActions.of(5, 100_000);
+      for (int i = 0; i < 50; i++) {
+        CompletableFuture<CommandPipeline.Result> result = pipeline.trySubmit(longBatch, true);
+        if (result == null) {
+          refused++;
+        } else {
+          accepted.add(result);
+        }
+      }
+      assertTrue(refused > 0);
+      assertTrue(pipeline.getQueuedCount() <= 1);
+      for (CompletableFuture<CommandPipeline.Result> result : accepted) {
+        assertEquals(100_000, result.get().getActionCount());
+      }
+    }
+  }
+
+  @Test
+  public void testTransportRoundTrips() throws Exception {
+    try (CommandPipeline pipeline = new CommandPipeline(new RegularManualTransmission(table),
+            8)) {
+      InProcessTransport transport = new InProcessTransport(pipeline, 1000);
+      ManualTransmission state = null;
+      for (int i = 0; i < 10; i++) {
+        state = transport.send(TransmissionAction.INCREASE_SPEED);
+      }
+      assertEquals(10, state.getSpeed());
+      assertEquals(10, transport.getMessageCount());
+      CommandPipeline.Result result = transport.send(new byte[] {0, 0, 0, 0, 0}, true);
+      assertEquals(15, result.getState().getSpeed());
+      assertEquals(11, result.getTrace().getSpeed(0));
+      assertEquals(11, transport.getMessageCount());
+    }
+  }
+
+  @Test
+  public void testTransportRethrowsRefusal() throws Exception {
+    CommandPipeline pipeline = new CommandPipeline(new RegularManualTransmission(table), 1);
+    InProcessTransport transport = new InProcessTransport(pipeline, 0);
+    pipeline.close();
+    try {
+      transport.send(TransmissionAction.INCREASE_GEAR);
+      fail("A closed pipeline should refuse new batches.");
+    } catch (IllegalStateException e) {
+      assertEquals("The pipeline is closed.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testCloseFinishesQueuedBatches() throws InterruptedException,
+          ExecutionException {
+    CommandPipeline pipeline = new CommandPipeline(new RegularManualTransmission(table), 16);
+    List<CompletableFuture<CommandPipeline.Result>> results = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      results.add(pipeline.submit(new byte[] {0}, false));
+    }
+    pipeline.close();
+    for (int i = 0; i < 16; i++) {
+      assertEquals(i + 1, results.get(i).get().getState().getSpeed());
+    }
+  }
+}
@@ -0,0 +1,116 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import vehicle.ConcurrentTransmission;
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents ConcurrentTransmission class test file.
+ */
+
+public class ConcurrentTransmissionTest {
+
+  @Test
+  public void testInitialState() {
+    ConcurrentTransmission cT = new ConcurrentTransmission(0, 20, 15, 40);
+    assertEquals(0, cT.getSpeed());
+    assertEquals(1, cT.getGear());
+    assertEquals("OK: everything is OK.", cT.getStatus());
+  }
+
+  @Test
+  public void testMatchesRegularTransmission() {
+    GearRangeTable table = new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+    ConcurrentTransmission cT = new ConcurrentTransmission(table, 2);
+    ManualTransmission expected = new RegularManualTransmission(table, 2);
+    Random random = new Random(9);
+    for (int step = 0; step < 5000; step++) {
+      TransmissionAction action = TransmissionAction.fromCode(random.nextInt(4));
+      expected = action.apply(expected);
+      assertEquals(expected.getTransmissionStatus(), cT.step(action));
+      assertEquals(expected, cT.snapshot());
+    }
+    cT.reset();
+    assertEquals(new RegularManualTransmission(table, 2), cT.snapshot());
+  }
+
+  @Test
+  public void testNoLostUpdates() throws InterruptedException {
+    int threads = 8;
+    int stepsPerThread = 20_000;
+    ConcurrentTransmission cT = new ConcurrentTransmission(0, threads * stepsPerThread);
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (int step = 0; step < stepsPerThread; step++) {
+          cT.step(TransmissionAction.INCREASE_SPEED);
+        }
+      });
+      workers[i].start();
+    }
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    assertEquals(threads * stepsPerThread, cT.getSpeed());
+    assertEquals(TransmissionStatus.MAXIMUM_SPEED,
+            cT.step(TransmissionAction.INCREASE_SPEED));
+  }
+
+  @Test
+  public void testBalancedUpdatesFromManyThreads() throws Exception {
+    ConcurrentTransmission cT = new ConcurrentTransmission(0, 1_000_000);
+    cT.increaseSpeedBy(500_000);
+    ExecutorService pool = Executors.newFixedThreadPool(6);
+    try {
+      List<Future<?>> workers = new ArrayList<>();
+      for (int i = 0; i < 6; i++) {
+        boolean up = i % 2 == 0;
+        workers.add(pool.submit(() -> {
+          for (int step = 0; step < 30_000; step++) {
+            if (up) {
+              cT.increaseSpeedBy(3);
+            } else {
+              cT.decreaseSpeedBy(3);
+            }
+            int speed = cT.snapshot().getSpeed();
+            assertTrue(speed >= 0 && speed <= 1_000_000);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(500_000, cT.getSpeed());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSpeedChange() {
+    new ConcurrentTransmission(new GearRangeTable(0, 20), 0);
+  }
+}
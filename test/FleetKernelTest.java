@@ -0,0 +1,141 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import vehicle.FleetKernel;
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents FleetKernel class test file.
+ */
+
+public class FleetKernelTest {
+
+  private static final GearRangeTable[] tables = {
+      new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100),
+      new GearRangeTable(0, 20, 20, 40, 40, 60, 60, 80, 80, 100),
+      new GearRangeTable(0, 30),
+      new GearRangeTable(0, 10, 5, 25, 20, 40, 30, 55, 50, 70, 65, 90, 85, 110, 100, 130,
+              120, 150, 145, 170, 165, 190, 185, 210),
+  };
+
+  @Test
+  public void testScalarMatchesRegularTransmission() {
+    assertMatches(FleetKernel.scalar());
+  }
+
+  @Test
+  public void testPreferredMatchesRegularTransmission() {
+    assertMatches(FleetKernel.preferred());
+  }
+
+  @Test
+  public void testPreferredMatchesScalar() {
+    Random random = new Random(21);
+    for (GearRangeTable table : tables) {
+      int size = 10_000 + random.nextInt(64);
+      int[] speeds = new int[size];
+      byte[] gears = new byte[size];
+      byte[] statusCodes = new byte[size];
+      for (int vehicle = 0; vehicle < size; vehicle++) {
+        speeds[vehicle] = table.getMinSpeed();
+        gears[vehicle] = 1;
+      }
+      int[] scalarSpeeds = speeds.clone();
+      byte[] scalarGears = gears.clone();
+      byte[] scalarStatusCodes = statusCodes.clone();
+      for (int tick = 0; tick < 200; tick++) {
+        byte[] actions = RandomActions.of(random, size);
+        FleetKernel.preferred().step(table, 1, speeds, gears, statusCodes, actions, 0, size);
+        FleetKernel.scalar().step(table, 1, scalarSpeeds, scalarGears, scalarStatusCodes,
+                actions, 0, size);
+      }
+      for (int vehicle = 0; vehicle < size; vehicle++) {
+        assertEquals(scalarSpeeds[vehicle], speeds[vehicle]);
+        assertEquals(scalarGears[vehicle], gears[vehicle]);
+        assertEquals(scalarStatusCodes[vehicle], statusCodes[vehicle]);
+      }
+    }
+  }
+
+  @Test
+  public void testLargeSpeedChangeDoesNotOverflow() {
+    GearRangeTable wide = new GearRangeTable(0, Integer.MAX_VALUE);
+    for (FleetKernel kernel : new FleetKernel[] {FleetKernel.scalar(), FleetKernel.preferred()}) {
+      int size = 40;
+      int[] speeds = new int[size];
+      byte[] gears = new byte[size];
+      byte[] statusCodes = new byte[size];
+      Arrays.fill(gears, (byte) 1);
+      byte[] actions = new byte[size];
+      for (int tick = 0; tick < 2; tick++) {
+        kernel.step(wide, 1 << 30, speeds, gears, statusCodes, actions, 0, size);
+      }
+      for (int vehicle = 0; vehicle < size; vehicle++) {
+        assertEquals(1 << 30, speeds[vehicle]);
+        assertEquals(TransmissionStatus.MAXIMUM_SPEED.getCode(), statusCodes[vehicle]);
+      }
+    }
+  }
+
+  @Test
+  public void testUnknownActionChangesNothing() {
+    int[] speeds = new int[100];
+    byte[] gears = new byte[100];
+    byte[] statusCodes = new byte[100];
+    Arrays.fill(gears, (byte) 1);
+    byte[] actions = new byte[100];
+    actions[99] = 4;
+    for (FleetKernel kernel : new FleetKernel[] {FleetKernel.scalar(), FleetKernel.preferred()}) {
+      String message = null;
+      try {
+        kernel.step(tables[0], 1, speeds, gears, statusCodes, actions, 0, 100);
+      } catch (IllegalArgumentException e) {
+        message = e.getMessage();
+      }
+      assertEquals("Unknown action code 4.", message);
+      assertEquals(0, speeds[0]);
+    }
+  }
+
+  private static void assertMatches(FleetKernel kernel) {
+    Random random = new Random(17);
+    for (GearRangeTable table : tables) {
+      for (int speedChange = 1; speedChange <= 3; speedChange++) {
+        int size = 257;
+        ManualTransmission[] expected = new ManualTransmission[size];
+        int[] speeds = new int[size];
+        byte[] gears = new byte[size];
+        byte[] statusCodes = new byte[size];
+        for (int vehicle = 0; vehicle < size; vehicle++) {
+          expected[vehicle] = new RegularManualTransmission(table, speedChange);
+          speeds[vehicle] = table.getMinSpeed();
+          gears[vehicle] = 1;
+        }
+        for (int tick = 0; tick < 300; tick++) {
+          byte[] actions = RandomActions.of(random, size);
+          int start = random.nextInt(8);
+          int end = size - random.nextInt(8);
+          kernel.step(table, speedChange, speeds, gears, statusCodes, actions, start, end);
+          for (int vehicle = start; vehicle < end; vehicle++) {
+            expected[vehicle] = TransmissionAction.fromCode(actions[vehicle])
+                    .apply(expected[vehicle]);
+          }
+        }
+        for (int vehicle = 0; vehicle < size; vehicle++) {
+          assertEquals(expected[vehicle].getSpeed(), speeds[vehicle]);
+          assertEquals(expected[vehicle].getGear(), gears[vehicle]);
+          assertEquals(expected[vehicle].getTransmissionStatus().getCode(),
+                  statusCodes[vehicle]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,138 @@
+import org.junit.Test;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents GearRangeTable class test file.
+ */
+
+public class GearRangeTableTest {
+
+  @Test
+  public void testAccessors() {
+    GearRangeTable table = new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100, 95, 130);
+    assertEquals(6, table.getGearCount());
+    assertEquals(0, table.getMinSpeed());
+    assertEquals(130, table.getMaxSpeed());
+    assertEquals(35, table.getLowSpeed(3));
+    assertEquals(60, table.getHighSpeed(3));
+  }
+
+  @Test
+  public void testEquality() {
+    GearRangeTable table = new GearRangeTable(0, 20, 20, 40, 40, 60, 60, 80, 80, 100);
+    assertTrue(table.equals(new GearRangeTable(0, 20, 20, 40, 40, 60, 60, 80, 80, 100)));
+    assertEquals(table.hashCode(),
+            new GearRangeTable(0, 20, 20, 40, 40, 60, 60, 80, 80, 100).hashCode());
+    assertFalse(table.equals(new GearRangeTable(0, 20, 20, 40, 40, 60, 60, 80, 80, 101)));
+  }
+
+  @Test
+  public void testSingleGear() {
+    ManualTransmission transmission = new RegularManualTransmission(new int[] {0, 2});
+    transmission = transmission.increaseSpeed().increaseSpeed().increaseSpeed();
+    assertEquals(2, transmission.getSpeed());
+    assertEquals("Cannot increase speed. Reached maximum speed.", transmission.getStatus());
+    assertEquals("Cannot increase gear. Reached maximum gear.",
+            transmission.increaseGear().getStatus());
+  }
+
+  @Test
+  public void testSevenGears() {
+    ManualTransmission transmission = new RegularManualTransmission(
+            new int[] {0, 10, 5, 20, 15, 30, 25, 40, 35, 50, 45, 60, 55, 70});
+    for (int gear = 1; gear < 7; gear++) {
+      while (transmission.getSpeed() < 10 * gear) {
+        transmission = transmission.increaseSpeed();
+      }
+      transmission = transmission.increaseGear();
+      assertEquals(gear + 1, transmission.getGear());
+    }
+    assertEquals("Cannot increase gear. Reached maximum gear.",
+            transmission.increaseGear().getStatus());
+  }
+
+  @Test
+  public void testEighteenGears() {
+    int[] ranges = new int[36];
+    for (int gear = 0; gear < 18; gear++) {
+      ranges[2 * gear] = 10 * gear;
+      ranges[2 * gear + 1] = 10 * gear + 10;
+    }
+    GearRangeTable table = new GearRangeTable(ranges);
+    assertEquals(18, table.getGearCount());
+    assertEquals(180, table.getMaxSpeed());
+  }
+
+  @Test
+  public void testOddNumberOfSpeeds() {
+    assertMessage("Speed ranges should be given as low/high pairs for at least one gear.",
+            0, 20, 20);
+  }
+
+  @Test
+  public void testNoGears() {
+    assertMessage("Speed ranges should be given as low/high pairs for at least one gear.");
+  }
+
+  @Test
+  public void testNonAdjacentOverlapInSixGears() {
+    assertMessage("Only adjacent-gear ranges may overlap; other ranges should not.",
+            0, 20, 20, 40, 40, 60, 60, 80, 70, 100, 80, 120);
+  }
+
+  @Test
+  public void testGapInSixGears() {
+    assertMessage("The given speeds do not cover the maximumSpeedLimit range.",
+            0, 20, 20, 40, 40, 60, 60, 80, 80, 100, 110, 120);
+  }
+
+  @Test
+  public void testHigherSpeedsDecreasingInSixGears() {
+    assertMessage("Any gear's higher speed should be strictly less than "
+            + "the next gear's higher speed.", 0, 20, 20, 40, 40, 60, 60, 80, 80, 100, 90, 95);
+  }
+
+  @Test
+  public void testNegativeSpeedInSixGears() {
+    assertMessage("One or more of the given speed values are negative or zero.",
+            0, 20, 20, 40, 40, 60, 60, 80, 80, 100, 100, -120);
+  }
+
+  @Test
+  public void testGearFor() {
+    GearRangeTable table = new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+    assertEquals(1, table.getGearFor(0));
+    assertEquals(1, table.getGearFor(14));
+    assertEquals(2, table.getGearFor(15));
+    assertEquals(2, table.getGearFor(34));
+    assertEquals(3, table.getGearFor(35));
+    assertEquals(5, table.getGearFor(100));
+    for (int speed = 0; speed <= 100; speed++) {
+      int gear = table.getGearFor(speed);
+      assertTrue(table.getLowSpeed(gear) <= speed && speed <= table.getHighSpeed(gear));
+      assertTrue(gear == table.getGearCount() || table.getLowSpeed(gear + 1) > speed);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGearForSpeedAboveLimit() {
+    new GearRangeTable(0, 20, 15, 40).getGearFor(41);
+  }
+
+  private void assertMessage(String expectedMessage, int... ranges) {
+    String actualMessage = null;
+    try {
+      new GearRangeTable(ranges);
+    } catch (IllegalArgumentException e) {
+      actualMessage = e.getMessage();
+    }
+    assertEquals(expectedMessage, actualMessage);
+  }
+}
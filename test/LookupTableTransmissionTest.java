@@ -0,0 +1,104 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import vehicle.LookupTableTransmission;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents LookupTableTransmission class test file.
+ */
+
+public class LookupTableTransmissionTest {
+
+  private static final int[][] configurations = {
+      {0, 20, 20, 40, 40, 60, 60, 80, 80, 100},
+      {0, 20, 10, 40, 40, 60, 50, 80, 80, 100},
+      {0, 20, 15, 40, 35, 60, 55, 80, 75, 100},
+      {0, 5, 1, 10, 6, 15, 11, 20, 16, 25},
+  };
+
+  @Test
+  public void testInitialState() {
+    ManualTransmission lookup = new LookupTableTransmission(0, 20, 20, 40, 40, 60, 60, 80, 80, 100);
+    assertEquals(0, lookup.getSpeed());
+    assertEquals(1, lookup.getGear());
+    assertEquals("OK: everything is OK.", lookup.getStatus());
+    assertEquals(TransmissionStatus.OK, lookup.getTransmissionStatus());
+  }
+
+  @Test
+  public void testInvalidInputs() {
+    String actualMessage = null;
+    try {
+      new LookupTableTransmission(0, 10, 20, 40, 40, 60, 60, 80, 80, 100);
+    } catch (IllegalArgumentException e) {
+      actualMessage = e.getMessage();
+    }
+    assertEquals("The given speeds do not cover the maximumSpeedLimit range.", actualMessage);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSpeedRangeTooWide() {
+    new LookupTableTransmission(0, 200000, 100000, 400000, 300000, 600000,
+            500000, 800000, 700000, 1000000);
+  }
+
+  @Test
+  public void testMatchesRegularTransmissionOnRandomWalks() {
+    Random random = new Random(7);
+    for (int[] r : configurations) {
+      for (int walk = 0; walk < 20; walk++) {
+        ManualTransmission regular = new RegularManualTransmission(r[0], r[1], r[2], r[3],
+                r[4], r[5], r[6], r[7], r[8], r[9]);
+        ManualTransmission lookup = new LookupTableTransmission(r);
+        for (int step = 0; step < 2000; step++) {
+          TransmissionAction action = TransmissionAction.fromCode(random.nextInt(4));
+          regular = action.apply(regular);
+          lookup = action.apply(lookup);
+          assertSameState(regular, lookup);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testMatchesRegularTransmissionOnRampUpAndDown() {
+    for (int[] r : configurations) {
+      ManualTransmission regular = new RegularManualTransmission(r[0], r[1], r[2], r[3],
+              r[4], r[5], r[6], r[7], r[8], r[9]);
+      ManualTransmission lookup = new LookupTableTransmission(r);
+      for (int step = 0; step < 2 * r[9] + 20; step++) {
+        TransmissionAction action = regular.getTransmissionStatus()
+                == TransmissionStatus.INCREASE_GEAR_FIRST
+                ? TransmissionAction.INCREASE_GEAR : TransmissionAction.INCREASE_SPEED;
+        regular = action.apply(regular);
+        lookup = action.apply(lookup);
+        assertSameState(regular, lookup);
+      }
+      assertEquals(r[9], lookup.getSpeed());
+      assertEquals(5, lookup.getGear());
+      for (int step = 0; step < 2 * r[9] + 20; step++) {
+        TransmissionAction action = regular.getTransmissionStatus()
+                == TransmissionStatus.DECREASE_GEAR_FIRST
+                ? TransmissionAction.DECREASE_GEAR : TransmissionAction.DECREASE_SPEED;
+        regular = action.apply(regular);
+        lookup = action.apply(lookup);
+        assertSameState(regular, lookup);
+      }
+      assertEquals(0, lookup.getSpeed());
+      assertEquals(1, lookup.getGear());
+    }
+  }
+
+  private void assertSameState(ManualTransmission expected, ManualTransmission actual) {
+    assertEquals(expected.getSpeed(), actual.getSpeed());
+    assertEquals(expected.getGear(), actual.getGear());
+    assertEquals(expected.getStatus(), actual.getStatus());
+  }
+}
@@ -0,0 +1,120 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.MappedTraceFile;
+import vehicle.MappedTraceWriter;
+import vehicle.RegularManualTransmission;
+import vehicle.ReplayTrace;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionFactory;
+import vehicle.TransmissionReplay;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents MappedTraceFile and MappedTraceWriter classes test file.
+ */
+
+public class MappedTraceFileTest {
+
+  private final GearRangeTable table =
+          new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+  private Path path;
+  private byte[] actions;
+
+  @Before
+  public void setUp() throws IOException {
+    path = Files.createTempFile("transmission", ".trace");
+    actions = RandomActions.of(3, 10_000);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(path);
+  }
+
+  @Test
+  public void testOpenLeavesSharedFactoryAlone() throws IOException {
+    new MappedTraceWriter(path, new RegularManualTransmission(table)).close();
+    TransmissionFactory shared = TransmissionFactory.shared();
+    long lookups = shared.getHits() + shared.getMisses();
+    int size = shared.size();
+    try (MappedTraceFile trace = MappedTraceFile.open(path)) {
+      assertEquals(table, trace.getSpeedRanges());
+    }
+    assertEquals(lookups, shared.getHits() + shared.getMisses());
+    assertEquals(size, shared.size());
+  }
+
+  @Test
+  public void testStateAtEveryStep() throws IOException {
+    RegularManualTransmission start = new RegularManualTransmission(table, 2);
+    ManualTransmission[] states = new ManualTransmission[actions.length + 1];
+    states[0] = start;
+    try (MappedTraceWriter writer = new MappedTraceWriter(path, start)) {
+      for (int step = 0; step < actions.length; step++) {
+        states[step + 1] = writer.apply(states[step], TransmissionAction.fromCode(actions[step]));
+      }
+      assertEquals(actions.length, writer.getStepCount());
+    }
+    assertEquals(16 + 40 + 8L * (actions.length + 1), Files.size(path));
+    try (MappedTraceFile trace = MappedTraceFile.open(path)) {
+      assertEquals(table, trace.getSpeedRanges());
+      assertEquals(2, trace.getSpeedChange());
+      assertEquals(actions.length, trace.getStepCount());
+      for (int step = actions.length; step >= 0; step--) {
+        assertEquals(states[step], trace.stateAt(step));
+        if (step > 0) {
+          assertEquals(TransmissionAction.fromCode(actions[step - 1]), trace.getAction(step));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSmallSegments() throws IOException {
+    RegularManualTransmission start = new RegularManualTransmission(table);
+    ReplayTrace replay = new ReplayTrace(actions.length);
+    TransmissionReplay.replay(start, actions, replay);
+    try (MappedTraceWriter writer = new MappedTraceWriter(path, start)) {
+      writer.write(actions, replay);
+    }
+    try (MappedTraceFile trace = MappedTraceFile.open(path, 64)) {
+      assertEquals(start, trace.stateAt(0));
+      for (int step = 1; step <= actions.length; step++) {
+        assertEquals(replay.getSpeed(step - 1), trace.getSpeed(step));
+        assertEquals(replay.getGear(step - 1), trace.getGear(step));
+        assertEquals(replay.getStatusCode(step - 1), trace.getStatusCode(step));
+      }
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testStepOutsideTrace() throws IOException {
+    try (MappedTraceWriter writer = new MappedTraceWriter(path,
+            new RegularManualTransmission(table))) {
+      writer.write(0, 1, 1, 0);
+    }
+    try (MappedTraceFile trace = MappedTraceFile.open(path)) {
+      trace.stateAt(2);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotATrace() throws IOException {
+    Files.write(path, new byte[64]);
+    MappedTraceFile.open(path).close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSegmentSize() throws IOException {
+    MappedTraceFile.open(path, 100);
+  }
+}
@@ -0,0 +1,116 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import vehicle.ManualTransmission;
+import vehicle.MutableManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents MutableManualTransmission class test file.
+ */
+
+public class MutableManualTransmissionTest {
+
+  private MutableManualTransmission mMT;
+
+  @Before
+  public void setUp() {
+    mMT = new MutableManualTransmission(0, 20, 20, 40, 40, 60, 60, 80, 80, 100);
+  }
+
+  @Test
+  public void testInitialState() {
+    assertEquals(0, mMT.getSpeed());
+    assertEquals(1, mMT.getGear());
+    assertEquals("OK: everything is OK.", mMT.getStatus());
+  }
+
+  @Test
+  public void testInvalidInputs() {
+    String actualMessage = null;
+    try {
+      new MutableManualTransmission(0, 20, 21, 40, 41, 60, 61, 80, 81, 100);
+    } catch (IllegalArgumentException e) {
+      actualMessage = e.getMessage();
+    }
+    assertEquals("Given ranges shouldn't be non-overlapping.", actualMessage);
+  }
+
+  @Test
+  public void testStepUpdatesInPlace() {
+    for (int i = 0; i < 20; i++) {
+      assertEquals(TransmissionStatus.OK, mMT.step(TransmissionAction.INCREASE_SPEED));
+    }
+    assertEquals(20, mMT.getSpeed());
+    assertEquals(TransmissionStatus.INCREASE_GEAR_FIRST,
+            mMT.step(TransmissionAction.INCREASE_SPEED));
+    assertEquals(20, mMT.getSpeed());
+    assertEquals(TransmissionStatus.OK, mMT.step(TransmissionAction.INCREASE_GEAR));
+    assertEquals(2, mMT.getGear());
+    assertEquals("OK: everything is OK.", mMT.getStatus());
+  }
+
+  @Test
+  public void testSnapshotIsNotChangedByLaterSteps() {
+    mMT.step(TransmissionAction.INCREASE_SPEED);
+    ManualTransmission snapshot = mMT.snapshot();
+    mMT.step(TransmissionAction.INCREASE_SPEED);
+    assertEquals(1, snapshot.getSpeed());
+    assertEquals(2, mMT.getSpeed());
+    assertEquals(2, snapshot.increaseSpeed().getSpeed());
+  }
+
+  @Test
+  public void testReset() {
+    mMT.step(TransmissionAction.INCREASE_SPEED);
+    mMT.step(TransmissionAction.DECREASE_GEAR);
+    mMT.reset();
+    assertEquals(0, mMT.getSpeed());
+    assertEquals(1, mMT.getGear());
+    assertEquals(TransmissionStatus.OK, mMT.getTransmissionStatus());
+  }
+
+  @Test
+  public void testSpeedByMatchesRegularTransmission() {
+    ManualTransmission regular = new RegularManualTransmission(0, 20, 20, 40, 40, 60, 60, 80, 80, 100);
+    assertEquals(TransmissionStatus.INCREASE_GEAR_FIRST, mMT.increaseSpeedBy(25));
+    regular = regular.increaseSpeedBy(25);
+    assertEquals(regular.getSpeed(), mMT.getSpeed());
+    assertEquals(TransmissionStatus.OK, mMT.decreaseSpeedBy(7));
+    assertEquals(regular.decreaseSpeedBy(7).getSpeed(), mMT.getSpeed());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownActionCode() {
+    mMT.step(4);
+  }
+
+  @Test
+  public void testMatchesRegularTransmissionOnRandomActions() {
+    int[][] configurations = {
+        {0, 20, 20, 40, 40, 60, 60, 80, 80, 100},
+        {0, 20, 10, 40, 40, 60, 50, 80, 80, 100},
+        {0, 5, 1, 10, 6, 15, 11, 20, 16, 25},
+    };
+    Random random = new Random(11);
+    for (int[] r : configurations) {
+      MutableManualTransmission mutable = new MutableManualTransmission(r);
+      ManualTransmission regular = new RegularManualTransmission(r[0], r[1], r[2], r[3],
+              r[4], r[5], r[6], r[7], r[8], r[9]);
+      for (int step = 0; step < 50000; step++) {
+        TransmissionAction action = TransmissionAction.fromCode(random.nextInt(4));
+        regular = action.apply(regular);
+        assertEquals(regular.getTransmissionStatus(), mutable.step(action));
+        assertEquals(regular.getSpeed(), mutable.getSpeed());
+        assertEquals(regular.getGear(), mutable.getGear());
+        assertEquals(regular.getStatus(), mutable.getStatus());
+      }
+    }
+  }
+}
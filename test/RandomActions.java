@@ -0,0 +1,37 @@
+import java.util.Random;
+
+/**
+ * This class builds the random drive cycles used by several test files.
+ */
+
+final class RandomActions {
+
+  private RandomActions() {
+  }
+
+  /**
+   * Draw the given number of action codes, each uniformly among the four actions.
+   *
+   * @param random source of the actions
+   * @param length number of actions
+   * @return action codes, as in TransmissionAction.getCode().
+   */
+  static byte[] of(Random random, int length) {
+    byte[] actions = new byte[length];
+    for (int i = 0; i < length; i++) {
+      actions[i] = (byte) random.nextInt(4);
+    }
+    return actions;
+  }
+
+  /**
+   * Draw the given number of action codes from a generator with the given seed.
+   *
+   * @param seed   seed of the generator
+   * @param length number of actions
+   * @return action codes, as in TransmissionAction.getCode().
+   */
+  static byte[] of(long seed, int length) {
+    return of(new Random(seed), length);
+  }
+}
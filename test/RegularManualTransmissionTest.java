@@ -1,8 +1,14 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
+
+import vehicle.GearRangeTable;
+import vehicle.LookupTableTransmission;
 import vehicle.ManualTransmission;
 import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStatus;
 
 import static org.junit.Assert.assertEquals;
 
@@ -267,6 +273,123 @@ public class RegularManualTransmissionTest {
     assertEquals("Cannot increase gear, increase speed first.", rMT.getStatus());
   }
 
+  @Test
+  public void testTransmissionStatusMatchesStatusMessage() {
+    assertEquals(TransmissionStatus.OK, rMT.getTransmissionStatus());
+    for (int i = 0; i < 21; i++) {
+      rMT = rMT.increaseSpeed();
+    }
+    assertEquals(TransmissionStatus.INCREASE_GEAR_FIRST, rMT.getTransmissionStatus());
+    assertEquals(rMT.getTransmissionStatus().getMessage(), rMT.getStatus());
+    rMT = rMT.decreaseGear();
+    assertEquals(TransmissionStatus.MINIMUM_GEAR, rMT.getTransmissionStatus());
+    assertEquals(rMT.getTransmissionStatus().getMessage(), rMT.getStatus());
+  }
+
+  @Test
+  public void testTransmissionStatusCodes() {
+    for (TransmissionStatus status : TransmissionStatus.values()) {
+      assertEquals(status, TransmissionStatus.fromCode(status.getCode()));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownTransmissionStatusCode() {
+    TransmissionStatus.fromCode(TransmissionStatus.values().length);
+  }
+
+  @Test
+  public void testConfigurableSpeedChange() {
+    rMT = new RegularManualTransmission(
+            new GearRangeTable(0, 20, 20, 40, 40, 60, 60, 80, 80, 100), 5);
+    rMT = rMT.increaseSpeed().increaseSpeed().increaseSpeed().increaseSpeed();
+    assertEquals(20, rMT.getSpeed());
+    rMT = rMT.increaseSpeed();
+    assertEquals(20, rMT.getSpeed());
+    assertEquals("Cannot increase speed, increase gear first.", rMT.getStatus());
+    rMT = rMT.increaseGear().increaseSpeed();
+    assertEquals(25, rMT.getSpeed());
+    assertEquals(2, rMT.getGear());
+    rMT = rMT.decreaseSpeed();
+    assertEquals(20, rMT.getSpeed());
+    assertEquals(2, rMT.getGear());
+    assertEquals("OK: everything is OK.", rMT.getStatus());
+  }
+
+  @Test
+  public void testLargeSpeedChangeDoesNotOverflow() {
+    rMT = new RegularManualTransmission(new GearRangeTable(0, Integer.MAX_VALUE), 1 << 30);
+    rMT = rMT.increaseSpeed();
+    assertEquals(1 << 30, rMT.getSpeed());
+    rMT = rMT.increaseSpeed();
+    assertEquals(1 << 30, rMT.getSpeed());
+    assertEquals(TransmissionStatus.MAXIMUM_SPEED, rMT.getTransmissionStatus());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveSpeedChange() {
+    new RegularManualTransmission(new GearRangeTable(0, 20, 20, 40, 40, 60, 60, 80, 80, 100), 0);
+  }
+
+  @Test
+  public void testIncreaseSpeedBy() {
+    rMT = rMT.increaseSpeedBy(15);
+    assertEquals(15, rMT.getSpeed());
+    assertEquals("OK: everything is OK.", rMT.getStatus());
+    rMT = rMT.increaseSpeedBy(15);
+    assertEquals(20, rMT.getSpeed());
+    assertEquals("Cannot increase speed, increase gear first.", rMT.getStatus());
+    rMT = rMT.increaseGear().increaseGear().increaseSpeedBy(1000);
+    assertEquals(40, rMT.getSpeed());
+    assertEquals("Cannot increase speed, increase gear first.", rMT.getStatus());
+  }
+
+  @Test
+  public void testDecreaseSpeedBy() {
+    rMT = rMT.increaseSpeedBy(20).increaseGear().increaseSpeedBy(10);
+    rMT = rMT.decreaseSpeedBy(10);
+    assertEquals(20, rMT.getSpeed());
+    assertEquals("OK: everything is OK.", rMT.getStatus());
+    rMT = rMT.decreaseSpeedBy(5);
+    assertEquals(20, rMT.getSpeed());
+    assertEquals("Cannot decrease speed, decrease gear first.", rMT.getStatus());
+    rMT = rMT.decreaseGear().decreaseSpeedBy(100);
+    assertEquals(0, rMT.getSpeed());
+    assertEquals("Cannot decrease speed. Reached minimum speed.", rMT.getStatus());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIncreaseSpeedByNonPositive() {
+    rMT.increaseSpeedBy(0);
+  }
+
+  @Test
+  public void testSpeedByMatchesRepeatedSpeedChanges() {
+    Random random = new Random(17);
+    int[] ranges = {0, 20, 10, 40, 30, 60, 50, 80, 70, 100};
+    ManualTransmission walk = new RegularManualTransmission(ranges);
+    for (int step = 0; step < 5000; step++) {
+      walk = TransmissionAction.fromCode(random.nextInt(4)).apply(walk);
+      int delta = 1 + random.nextInt(30);
+      ManualTransmission up = walk;
+      ManualTransmission down = walk;
+      for (int i = 0; i < delta; i++) {
+        up = up.increaseSpeed();
+        down = down.decreaseSpeed();
+      }
+      assertSameState(up, walk.increaseSpeedBy(delta));
+      assertSameState(down, walk.decreaseSpeedBy(delta));
+      ManualTransmission lookup = new LookupTableTransmission(ranges);
+      assertSameState(new RegularManualTransmission(ranges).increaseSpeedBy(delta),
+              lookup.increaseSpeedBy(delta));
+    }
+  }
+
+  private void assertSameState(ManualTransmission expected, ManualTransmission actual) {
+    assertEquals(expected.getSpeed(), actual.getSpeed());
+    assertEquals(expected.getGear(), actual.getGear());
+    assertEquals(expected.getStatus(), actual.getStatus());
+  }
 
   @Test
   public void testIncreaseSpeedAndGearWithOverlappingSeq() {
@@ -0,0 +1,168 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.ShiftSolver;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionReplay;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents ShiftSolver class test file.
+ */
+
+public class ShiftSolverTest {
+
+  private GearRangeTable table;
+  private ShiftSolver solver;
+
+  @Before
+  public void setUp() {
+    table = new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+    solver = new ShiftSolver(table);
+  }
+
+  @Test
+  public void testDistanceToItself() {
+    assertEquals(0, solver.distance(0, 1, 0, 1));
+    assertArrayEquals(new byte[0], solver.shortestPath(0, 1, 0, 1));
+  }
+
+  @Test
+  public void testShortestPathToTopGear() {
+    assertEquals(104, solver.distance(0, 1, 100, 5));
+    byte[] path = solver.shortestPath(0, 1, 100, 5);
+    assertEquals(104, path.length);
+    ManualTransmission end = TransmissionReplay.replay(new RegularManualTransmission(table), path);
+    assertEquals(100, end.getSpeed());
+    assertEquals(5, end.getGear());
+  }
+
+  @Test
+  public void testMatchesSearchOverTransmissions() {
+    int[][] sources = {{0, 1}, {30, 2}, {100, 5}, {50, 3}};
+    for (int[] source : sources) {
+      Map<Integer, Integer> expected = search(source[0], source[1]);
+      for (int speed = 0; speed <= 100; speed++) {
+        for (int gear = 1; gear <= 5; gear++) {
+          Integer distance = expected.get(speed * 8 + gear);
+          assertEquals(distance == null ? -1 : distance,
+                  solver.distance(source[0], source[1], speed, gear));
+          byte[] path = solver.shortestPath(source[0], source[1], speed, gear);
+          if (distance == null) {
+            assertNull(path);
+          } else {
+            ManualTransmission end = TransmissionReplay.replay(
+                    transmissionAt(source[0], source[1]), path);
+            assertEquals(speed, end.getSpeed());
+            assertEquals(gear, end.getGear());
+          }
+        }
+      }
+    }
+    assertEquals(sources.length, solver.getCachedSourceCount());
+  }
+
+  @Test
+  public void testUnreachableStates() {
+    assertFalse(solver.isReachable(0, 1, 0, 5));
+    assertTrue(solver.isReachable(0, 1, 80, 4));
+    assertEquals(0, solver.getUnreachableStates().length);
+    int drivable = 0;
+    for (int gear = 1; gear <= 5; gear++) {
+      drivable += table.getHighSpeed(gear) - table.getLowSpeed(gear) + 1;
+    }
+    assertEquals(drivable, search(0, 1).size());
+  }
+
+  @Test
+  public void testSpeedChangeLeavesSpeedsUnreachable() {
+    ShiftSolver coarse = new ShiftSolver(new GearRangeTable(0, 20, 15, 40), 3);
+    assertTrue(coarse.isReachable(0, 1, 39, 2));
+    assertFalse(coarse.isReachable(0, 1, 40, 2));
+    assertEquals(-1, coarse.distance(0, 1, 10, 1));
+    int[][] unreachable = coarse.getUnreachableStates();
+    assertEquals(14 + 17, unreachable.length);
+    for (int[] state : unreachable) {
+      assertTrue(state[0] % 3 != 0 || state[0] > 39);
+      assertTrue(state[1] == 1 ? state[0] <= 20 : state[0] >= 15);
+      assertFalse(coarse.isReachable(0, 1, state[0], state[1]));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStateOutsideConfiguration() {
+    solver.distance(0, 1, 101, 5);
+  }
+
+  @Test
+  public void testCacheBudgetBoundsRows() {
+    int stateCount = 101 * 5;
+    ShiftSolver bounded = new ShiftSolver(table, 1, 3L * 4 * stateCount);
+    assertEquals(3, bounded.getMaxCachedSourceCount());
+    for (int speed = 0; speed <= 20; speed++) {
+      assertEquals(solver.distance(speed, 1, 60, 3), bounded.distance(speed, 1, 60, 3));
+      assertTrue(bounded.getCachedSourceCount() <= 3);
+    }
+    assertEquals(solver.distance(0, 1, 60, 3), bounded.distance(0, 1, 60, 3));
+    assertEquals(3, bounded.getCachedSourceCount());
+  }
+
+  @Test
+  public void testSmallConfigurationCachesFullMatrix() {
+    assertEquals(101 * 5, solver.getMaxCachedSourceCount());
+    ShiftSolver tiny = new ShiftSolver(table, 1, 1);
+    assertEquals(1, tiny.getMaxCachedSourceCount());
+    assertEquals(solver.distance(0, 1, 60, 3), tiny.distance(0, 1, 60, 3));
+    assertEquals(solver.distance(5, 1, 60, 3), tiny.distance(5, 1, 60, 3));
+    assertEquals(1, tiny.getCachedSourceCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroCacheBudget() {
+    new ShiftSolver(table, 1, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyStates() {
+    new ShiftSolver(new GearRangeTable(0, 20_000_000));
+  }
+
+  private ManualTransmission transmissionAt(int speed, int gear) {
+    byte[] path = solver.shortestPath(0, 1, speed, gear);
+    assertTrue(path != null);
+    return TransmissionReplay.replay(new RegularManualTransmission(table), path);
+  }
+
+  private Map<Integer, Integer> search(int speed, int gear) {
+    Map<Integer, Integer> distances = new HashMap<>();
+    ArrayDeque<ManualTransmission> queue = new ArrayDeque<>();
+    ManualTransmission start = transmissionAt(speed, gear);
+    distances.put(speed * 8 + gear, 0);
+    queue.add(start);
+    while (!queue.isEmpty()) {
+      ManualTransmission state = queue.poll();
+      int distance = distances.get(state.getSpeed() * 8 + state.getGear());
+      for (TransmissionAction action : TransmissionAction.values()) {
+        ManualTransmission next = action.apply(state);
+        int key = next.getSpeed() * 8 + next.getGear();
+        if (!distances.containsKey(key)) {
+          distances.put(key, distance + 1);
+          queue.add(next);
+        }
+      }
+    }
+    return distances;
+  }
+}
@@ -0,0 +1,73 @@
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.ListResourceBundle;
+import java.util.Map;
+
+import vehicle.ManualTransmission;
+import vehicle.MutableManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.StatusMessages;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents StatusMessages class test file.
+ */
+
+public class StatusMessagesTest {
+
+  @Test
+  public void testDefaultsMatchGetStatus() {
+    ManualTransmission current = new RegularManualTransmission(0, 20, 15, 40, 35, 60, 55,
+            80, 75, 100);
+    TransmissionAction[] actions = TransmissionAction.values();
+    for (int step = 0; step < 2000; step++) {
+      current = actions[(step * 7 + step / 13) % actions.length].apply(current);
+      assertEquals(current.getStatus(), current.getStatus(StatusMessages.defaults()));
+    }
+    for (TransmissionStatus status : TransmissionStatus.values()) {
+      assertEquals(status.getMessage(), StatusMessages.defaults().getMessage(status));
+      assertEquals(status.getMessage(), StatusMessages.defaults().getMessage(status.getCode()));
+    }
+    assertEquals("Cannot increase speed, increase gear first.",
+            StatusMessages.defaults().getMessage(TransmissionStatus.INCREASE_GEAR_FIRST));
+  }
+
+  @Test
+  public void testCustomMessages() {
+    Map<TransmissionStatus, String> messages = new EnumMap<>(TransmissionStatus.class);
+    messages.put(TransmissionStatus.OK, "ok");
+    StatusMessages table = StatusMessages.of(messages);
+    MutableManualTransmission mMT = new MutableManualTransmission(0, 20, 15, 40);
+    assertEquals("ok", mMT.getStatus(table));
+    mMT.step(TransmissionAction.DECREASE_GEAR);
+    assertEquals("Cannot decrease gear. Reached minimum gear.", mMT.getStatus(table));
+  }
+
+  @Test
+  public void testResourceBundle() {
+    ListResourceBundle german = new ListResourceBundle() {
+      @Override
+      protected Object[][] getContents() {
+        return new Object[][] {
+            {"MAXIMUM_GEAR", "H\u00f6chster Gang erreicht."},
+            {"INCREASE_GEAR_FIRST", "Zuerst hochschalten."},
+        };
+      }
+    };
+    StatusMessages table = StatusMessages.fromBundle(german);
+    assertEquals("Zuerst hochschalten.",
+            table.getMessage(TransmissionStatus.INCREASE_GEAR_FIRST));
+    assertEquals("H\u00f6chster Gang erreicht.", new RegularManualTransmission(new int[] {0, 20})
+            .increaseGear().getStatus(table));
+    assertEquals("OK: everything is OK.", table.getMessage(TransmissionStatus.OK));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownCode() {
+    StatusMessages.defaults().getMessage(42);
+  }
+}
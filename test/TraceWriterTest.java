@@ -0,0 +1,145 @@
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.ReplayTrace;
+import vehicle.TraceReader;
+import vehicle.TraceWriter;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionReplay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This class represents TraceWriter and TraceReader classes test file.
+ */
+
+public class TraceWriterTest {
+
+  private final GearRangeTable table =
+          new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+
+  @Test
+  public void testSessionRoundTrip() throws IOException {
+    byte[] actions = RandomActions.of(11, 20_000);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ManualTransmission[] states = new ManualTransmission[actions.length];
+    try (TraceWriter writer = new TraceWriter(Channels.newChannel(bytes), 64)) {
+      ManualTransmission current = new RegularManualTransmission(table);
+      for (int step = 0; step < actions.length; step++) {
+        current = writer.apply(current, TransmissionAction.fromCode(actions[step]));
+        states[step] = current;
+      }
+      assertEquals(actions.length, writer.getRecordCount());
+    }
+    assertTrue(bytes.size() <= 5 + 3 * actions.length);
+    try (TraceReader reader = new TraceReader(
+            Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), 32)) {
+      for (int step = 0; step < actions.length; step++) {
+        assertTrue(reader.next());
+        assertEquals(actions[step], reader.getActionCode());
+        assertEquals(TransmissionAction.fromCode(actions[step]), reader.getAction());
+        assertEquals(states[step].getSpeed(), reader.getSpeed());
+        assertEquals(states[step].getGear(), reader.getGear());
+        assertEquals(states[step].getTransmissionStatus(), reader.getTransmissionStatus());
+      }
+      assertFalse(reader.next());
+      assertEquals(actions.length, reader.getRecordCount());
+    }
+  }
+
+  @Test
+  public void testReplayTraceRoundTrip() throws IOException {
+    byte[] actions = RandomActions.of(11, 1000);
+    ReplayTrace trace = new ReplayTrace(actions.length);
+    TransmissionReplay.replay(new RegularManualTransmission(table, 7), actions, trace);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (TraceWriter writer = new TraceWriter(Channels.newChannel(bytes))) {
+      writer.write(actions, trace);
+    }
+    try (TraceReader reader = new TraceReader(
+            Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())))) {
+      for (int step = 0; step < actions.length; step++) {
+        assertTrue(reader.next());
+        assertEquals(trace.getSpeed(step), reader.getSpeed());
+        assertEquals(trace.getGear(step), reader.getGear());
+        assertEquals(trace.getStatusCode(step), reader.getStatusCode());
+      }
+      assertFalse(reader.next());
+    }
+  }
+
+  @Test
+  public void testLargeSpeedJumps() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (TraceWriter writer = new TraceWriter(Channels.newChannel(bytes))) {
+      writer.write(0, Integer.MAX_VALUE, 65535, 7);
+      writer.write(1, 0, 1, 0);
+    }
+    try (TraceReader reader = new TraceReader(
+            Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())))) {
+      assertTrue(reader.next());
+      assertEquals(Integer.MAX_VALUE, reader.getSpeed());
+      assertEquals(65535, reader.getGear());
+      assertEquals(7, reader.getStatusCode());
+      assertTrue(reader.next());
+      assertEquals(1, reader.getActionCode());
+      assertEquals(0, reader.getSpeed());
+      assertEquals(1, reader.getGear());
+      assertFalse(reader.next());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotATrace() throws IOException {
+    new TraceReader(Channels.newChannel(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5})));
+  }
+
+  @Test(expected = EOFException.class)
+  public void testTruncatedTrace() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (TraceWriter writer = new TraceWriter(Channels.newChannel(bytes))) {
+      writer.write(0, 1000, 1, 0);
+    }
+    byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+    TraceReader reader = new TraceReader(
+            Channels.newChannel(new ByteArrayInputStream(truncated)));
+    reader.next();
+  }
+
+  @Test(expected = IOException.class)
+  public void testWriteAfterClose() throws IOException {
+    TraceWriter writer = new TraceWriter(Channels.newChannel(new ByteArrayOutputStream()));
+    writer.close();
+    writer.write(0, 1, 1, 0);
+  }
+
+  @Test
+  public void testUnknownCodesRejected() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (TraceWriter writer = new TraceWriter(Channels.newChannel(bytes))) {
+      int[][] records = {{4, 1, 1, 0}, {-1, 1, 1, 0}, {0, 1, 1, 11}, {0, 1, 1, -1}};
+      for (int[] record : records) {
+        try {
+          writer.write(record[0], record[1], record[2], record[3]);
+          fail("Codes that do not fit the record should be rejected.");
+        } catch (IllegalArgumentException e) {
+          assertEquals(0, writer.getRecordCount());
+        }
+      }
+      writer.write(3, 0, 1, 10);
+      assertEquals(1, writer.getRecordCount());
+    }
+  }
+}
@@ -0,0 +1,85 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import vehicle.ManualTransmission;
+import vehicle.TransmissionFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * This class represents TransmissionFactory class test file.
+ */
+
+public class TransmissionFactoryTest {
+
+  private TransmissionFactory factory;
+
+  @Before
+  public void setUp() {
+    factory = new TransmissionFactory(2);
+  }
+
+  @Test
+  public void testCreatesInitialTransmission() {
+    ManualTransmission transmission = TransmissionFactory.of(0, 20, 20, 40, 40, 60, 60, 80, 80, 100);
+    assertEquals(0, transmission.getSpeed());
+    assertEquals(1, transmission.getGear());
+    assertEquals("OK: everything is OK.", transmission.getStatus());
+  }
+
+  @Test
+  public void testRemembersValidConfigurations() {
+    factory.create(0, 20, 20, 40, 40, 60, 60, 80, 80, 100);
+    factory.create(0, 20, 20, 40, 40, 60, 60, 80, 80, 100);
+    assertSame(factory.speedRanges(0, 20, 20, 40, 40, 60, 60, 80, 80, 100),
+            factory.speedRanges(0, 20, 20, 40, 40, 60, 60, 80, 80, 100));
+    assertEquals(1, factory.getMisses());
+    assertEquals(3, factory.getHits());
+  }
+
+  @Test
+  public void testRemembersInvalidConfigurations() {
+    for (int attempt = 0; attempt < 3; attempt++) {
+      String actualMessage = null;
+      try {
+        factory.create(0, 10, 20, 40, 40, 60, 60, 80, 80, 100);
+      } catch (IllegalArgumentException e) {
+        actualMessage = e.getMessage();
+      }
+      assertEquals("The given speeds do not cover the maximumSpeedLimit range.", actualMessage);
+    }
+    assertEquals(1, factory.getMisses());
+    assertEquals(2, factory.getHits());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    int[] first = {0, 20, 20, 40, 40, 60, 60, 80, 80, 100};
+    int[] second = {0, 20, 10, 40, 40, 60, 50, 80, 80, 100};
+    int[] third = {0, 10};
+    factory.create(first);
+    factory.create(second);
+    factory.create(first);
+    factory.create(third);
+    assertEquals(2, factory.size());
+    factory.create(first);
+    assertEquals(3, factory.getMisses());
+    factory.create(second);
+    assertEquals(4, factory.getMisses());
+  }
+
+  @Test
+  public void testCallerArrayChangesDoNotAffectCache() {
+    int[] ranges = {0, 20, 20, 40, 40, 60, 60, 80, 80, 100};
+    factory.create(ranges);
+    ranges[9] = 120;
+    assertEquals(120, factory.speedRanges(ranges).getMaxSpeed());
+    assertEquals(100, factory.speedRanges(0, 20, 20, 40, 40, 60, 60, 80, 80, 100).getMaxSpeed());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveCapacity() {
+    new TransmissionFactory(0);
+  }
+}
@@ -0,0 +1,183 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionFleet;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * This class represents TransmissionFleet class test file.
+ */
+
+public class TransmissionFleetTest {
+
+  private static final int[] sedan = {0, 20, 20, 40, 40, 60, 60, 80, 80, 100};
+  private static final int[] truck = {0, 5, 1, 10, 6, 15, 11, 20, 16, 25};
+
+  private GearRangeTable[] models;
+  private TransmissionFleet fleet;
+
+  @Before
+  public void setUp() {
+    models = new GearRangeTable[] {new GearRangeTable(sedan), new GearRangeTable(truck)};
+    fleet = new TransmissionFleet(models, new int[] {0, 1, 1, 0, 1});
+  }
+
+  @Test
+  public void testInitialState() {
+    assertEquals(5, fleet.size());
+    for (int vehicle = 0; vehicle < fleet.size(); vehicle++) {
+      assertEquals(0, fleet.getSpeed(vehicle));
+      assertEquals(1, fleet.getGear(vehicle));
+      assertEquals(TransmissionStatus.OK, fleet.getTransmissionStatus(vehicle));
+    }
+    assertSame(models[1], fleet.getModel(2));
+  }
+
+  @Test
+  public void testApplyActions() {
+    byte speedUp = TransmissionAction.INCREASE_SPEED.getCode();
+    byte gearUp = TransmissionAction.INCREASE_GEAR.getCode();
+    byte gearDown = TransmissionAction.DECREASE_GEAR.getCode();
+    fleet.applyActions(new byte[] {speedUp, speedUp, gearUp, gearDown, speedUp});
+    assertEquals(1, fleet.getSpeed(0));
+    assertEquals(1, fleet.getSpeed(1));
+    assertEquals(TransmissionStatus.INCREASE_SPEED_FIRST, fleet.getTransmissionStatus(2));
+    assertEquals(TransmissionStatus.MINIMUM_GEAR, fleet.getTransmissionStatus(3));
+    assertEquals(TransmissionStatus.MAY_INCREASE_GEAR, fleet.getTransmissionStatus(4));
+    fleet.applyActions(new byte[] {gearUp, gearUp, gearUp, gearUp, gearUp});
+    assertEquals(1, fleet.getGear(0));
+    assertEquals(2, fleet.getGear(1));
+  }
+
+  @Test
+  public void testSnapshotAndReset() {
+    fleet.applyAction(3, TransmissionAction.INCREASE_SPEED);
+    ManualTransmission snapshot = fleet.snapshot(3);
+    assertEquals(1, snapshot.getSpeed());
+    assertEquals(2, snapshot.increaseSpeed().getSpeed());
+    fleet.reset();
+    assertEquals(0, fleet.getSpeed(3));
+    assertEquals(1, snapshot.getSpeed());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongNumberOfActions() {
+    fleet.applyActions(new byte[fleet.size() + 1]);
+  }
+
+  @Test
+  public void testUnknownActionChangesNothing() {
+    try {
+      fleet.applyActions(new byte[] {0, 0, 7, 0, 0});
+      fail("Unknown action codes should be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Unknown action code 7.", e.getMessage());
+    }
+    for (int vehicle = 0; vehicle < fleet.size(); vehicle++) {
+      assertEquals(0, fleet.getSpeed(vehicle));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownModel() {
+    new TransmissionFleet(models, new int[] {0, 2});
+  }
+
+  @Test
+  public void testMatchesRegularTransmissions() {
+    Random random = new Random(3);
+    int size = 200;
+    int[] modelIndexes = new int[size];
+    ManualTransmission[] expected = new ManualTransmission[size];
+    for (int vehicle = 0; vehicle < size; vehicle++) {
+      modelIndexes[vehicle] = random.nextInt(2);
+      int[] r = modelIndexes[vehicle] == 0 ? sedan : truck;
+      expected[vehicle] = new RegularManualTransmission(r[0], r[1], r[2], r[3], r[4],
+              r[5], r[6], r[7], r[8], r[9]);
+    }
+    fleet = new TransmissionFleet(models, modelIndexes);
+    byte[] actions = new byte[size];
+    for (int tick = 0; tick < 2000; tick++) {
+      for (int vehicle = 0; vehicle < size; vehicle++) {
+        actions[vehicle] = (byte) random.nextInt(4);
+        expected[vehicle] = TransmissionAction.fromCode(actions[vehicle]).apply(expected[vehicle]);
+      }
+      fleet.applyActions(actions);
+      for (int vehicle = 0; vehicle < size; vehicle++) {
+        assertEquals(expected[vehicle].getSpeed(), fleet.getSpeed(vehicle));
+        assertEquals(expected[vehicle].getGear(), fleet.getGear(vehicle));
+        assertEquals(expected[vehicle].getTransmissionStatus(),
+                fleet.getTransmissionStatus(vehicle));
+      }
+    }
+  }
+
+  @Test
+  public void testParallelStepsMatchSequentialSteps() {
+    Random random = new Random(5);
+    int size = 10000;
+    int[] modelIndexes = new int[size];
+    for (int vehicle = 0; vehicle < size; vehicle++) {
+      modelIndexes[vehicle] = random.nextInt(2);
+    }
+    TransmissionFleet sequential = new TransmissionFleet(models, modelIndexes);
+    TransmissionFleet[] parallel = {
+        new TransmissionFleet(models, modelIndexes),
+        new TransmissionFleet(models, modelIndexes),
+        new TransmissionFleet(models, modelIndexes),
+    };
+    int[] chunkSizes = {1, 97, size};
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      byte[] actions = new byte[size];
+      for (int tick = 0; tick < 50; tick++) {
+        for (int vehicle = 0; vehicle < size; vehicle++) {
+          actions[vehicle] = (byte) random.nextInt(4);
+        }
+        sequential.applyActions(actions);
+        for (int i = 0; i < parallel.length; i++) {
+          parallel[i].applyActions(actions, pool, chunkSizes[i]);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+    for (TransmissionFleet fleet : parallel) {
+      for (int vehicle = 0; vehicle < size; vehicle++) {
+        assertEquals(sequential.getSpeed(vehicle), fleet.getSpeed(vehicle));
+        assertEquals(sequential.getGear(vehicle), fleet.getGear(vehicle));
+        assertEquals(sequential.getStatusCode(vehicle), fleet.getStatusCode(vehicle));
+      }
+    }
+  }
+
+  @Test
+  public void testParallelUnknownActionChangesNothing() {
+    try {
+      fleet.applyActions(new byte[] {0, 0, 7, 0, 0}, ForkJoinPool.commonPool(), 1);
+      fail("Unknown action codes should be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Unknown action code 7.", e.getMessage());
+    }
+    for (int vehicle = 0; vehicle < fleet.size(); vehicle++) {
+      assertEquals(0, fleet.getSpeed(vehicle));
+      assertEquals(TransmissionStatus.OK, fleet.getTransmissionStatus(vehicle));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParallelStepsNeedPositiveChunkSize() {
+    fleet.applyActions(new byte[fleet.size()], ForkJoinPool.commonPool(), 0);
+  }
+}
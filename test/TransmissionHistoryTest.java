@@ -0,0 +1,140 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionHistory;
+import vehicle.TransmissionStateCodec;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents TransmissionHistory class test file.
+ */
+
+public class TransmissionHistoryTest {
+
+  private static final GearRangeTable table =
+          new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+
+  @Test
+  public void testEmptyHistory() {
+    RegularManualTransmission start = new RegularManualTransmission(table);
+    TransmissionHistory history = new TransmissionHistory(start, 8);
+    assertEquals(0, history.getStepCount());
+    assertEquals(1, history.getSnapshotCount());
+    assertEquals(8, history.getSnapshotInterval());
+    assertEquals(start, history.stateAt(0));
+    assertEquals(start, history.getState());
+  }
+
+  @Test
+  public void testStateAtEveryStepMatchesObjects() {
+    for (int interval : new int[] {1, 2, 3, 7, 64, 1000}) {
+      RegularManualTransmission start = new RegularManualTransmission(table, 2);
+      TransmissionHistory history = new TransmissionHistory(start, interval);
+      List<ManualTransmission> states = new ArrayList<>();
+      states.add(start);
+      Random random = new Random(interval);
+      ManualTransmission current = start;
+      for (int step = 0; step < 500; step++) {
+        TransmissionAction action = TransmissionAction.fromCode(random.nextInt(4));
+        current = action.apply(current);
+        states.add(current);
+        assertEquals(current.getTransmissionStatus(), history.record(action));
+      }
+      assertEquals(500, history.getStepCount());
+      assertEquals(500 / interval + 1, history.getSnapshotCount());
+      for (int step = 0; step <= 500; step++) {
+        assertEquals(states.get(step), history.stateAt(step));
+        assertEquals(TransmissionStateCodec.pack(states.get(step)),
+                history.packedStateAt(step));
+      }
+      assertEquals(current, history.getState());
+    }
+  }
+
+  @Test
+  public void testGetAction() {
+    TransmissionHistory history = new TransmissionHistory(new RegularManualTransmission(table),
+            3);
+    TransmissionAction[] actions = TransmissionAction.values();
+    for (int i = 0; i < 21; i++) {
+      history.record(actions[i % 4]);
+    }
+    for (int step = 1; step <= 21; step++) {
+      assertEquals(actions[(step - 1) % 4], history.getAction(step));
+    }
+  }
+
+  @Test
+  public void testRecordBatch() {
+    TransmissionHistory history = new TransmissionHistory(new RegularManualTransmission(table),
+            4);
+    assertEquals(TransmissionStatus.MAY_INCREASE_GEAR,
+            history.record(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}));
+    assertEquals(15, history.getStepCount());
+    assertEquals(7, history.stateAt(7).getSpeed());
+  }
+
+  @Test
+  public void testBadBatchRecordsNothing() {
+    TransmissionHistory history = new TransmissionHistory(new RegularManualTransmission(table),
+            4);
+    try {
+      history.record(new byte[] {0, 0, 5});
+    } catch (IllegalArgumentException e) {
+      assertEquals(0, history.getStepCount());
+      return;
+    }
+    throw new AssertionError("Unknown action codes should be rejected.");
+  }
+
+  @Test
+  public void testLongHistory() {
+    RegularManualTransmission start = new RegularManualTransmission(table);
+    TransmissionHistory history = new TransmissionHistory(start, 100);
+    ManualTransmission current = start;
+    ManualTransmission middle = null;
+    Random random = new Random(1);
+    for (int step = 1; step <= 200_000; step++) {
+      int action = random.nextInt(4);
+      history.record(action);
+      current = TransmissionAction.fromCode(action).apply(current);
+      if (step == 123_457) {
+        middle = current;
+      }
+    }
+    assertEquals(middle, history.stateAt(123_457));
+    assertEquals(current, history.stateAt(200_000));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testStateAfterLastStep() {
+    TransmissionHistory history = new TransmissionHistory(new RegularManualTransmission(table),
+            4);
+    history.record(TransmissionAction.INCREASE_SPEED);
+    history.stateAt(2);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testActionBeforeFirstStep() {
+    new TransmissionHistory(new RegularManualTransmission(table), 4).getAction(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownAction() {
+    new TransmissionHistory(new RegularManualTransmission(table), 4).record(4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroInterval() {
+    new TransmissionHistory(new RegularManualTransmission(table), 0);
+  }
+}
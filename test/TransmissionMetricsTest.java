@@ -0,0 +1,105 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import vehicle.GearRangeTable;
+import vehicle.InstrumentedTransmission;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionMetrics;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents TransmissionMetrics and InstrumentedTransmission classes test file.
+ */
+
+public class TransmissionMetricsTest {
+
+  private TransmissionMetrics metrics;
+
+  @Before
+  public void setUp() {
+    metrics = new TransmissionMetrics();
+  }
+
+  @Test
+  public void testCountsStatusesAndActions() {
+    ManualTransmission current = metrics.create(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+    for (int i = 0; i < 21; i++) {
+      current = current.increaseSpeed();
+    }
+    current = current.increaseGear().decreaseGear().decreaseGear();
+    assertEquals(20, current.getSpeed());
+    assertEquals(1, current.getGear());
+    assertEquals(TransmissionStatus.MINIMUM_GEAR, current.getTransmissionStatus());
+
+    TransmissionMetrics.Snapshot snapshot = metrics.snapshot();
+    assertEquals(21, snapshot.getActionCount(TransmissionAction.INCREASE_SPEED));
+    assertEquals(1, snapshot.getActionCount(TransmissionAction.INCREASE_GEAR));
+    assertEquals(2, snapshot.getActionCount(TransmissionAction.DECREASE_GEAR));
+    assertEquals(0, snapshot.getActionCount(TransmissionAction.DECREASE_SPEED));
+    assertEquals(1, snapshot.getStatusCount(TransmissionStatus.INCREASE_GEAR_FIRST));
+    assertEquals(6, snapshot.getStatusCount(TransmissionStatus.MAY_INCREASE_GEAR));
+    assertEquals(1, snapshot.getStatusCount(TransmissionStatus.MINIMUM_GEAR));
+    long histogramTotal = 0;
+    for (long count : snapshot.getLatencyHistogram(TransmissionAction.INCREASE_SPEED)) {
+      histogramTotal += count;
+    }
+    assertEquals(21, histogramTotal);
+    assertEquals(TransmissionMetrics.bucketCount,
+            snapshot.getLatencyHistogram(TransmissionAction.DECREASE_GEAR).length);
+    assertEquals(1, snapshot.getValidationCount());
+    assertEquals(0, snapshot.getRejectionCount());
+  }
+
+  @Test
+  public void testRecordsRejectedValidation() {
+    try {
+      metrics.speedRanges(0, 20, 21, 40);
+    } catch (IllegalArgumentException e) {
+      assertEquals("Given ranges shouldn't be non-overlapping.", e.getMessage());
+    }
+    metrics.speedRanges(0, 20, 20, 40);
+    TransmissionMetrics.Snapshot snapshot = metrics.snapshot();
+    assertEquals(2, snapshot.getValidationCount());
+    assertEquals(1, snapshot.getRejectionCount());
+    assertTrue(snapshot.getValidationNanos() >= 0);
+  }
+
+  @Test
+  public void testBehavesLikeWrappedTransmission() {
+    GearRangeTable table = new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+    ManualTransmission plain = new RegularManualTransmission(table);
+    ManualTransmission wrapped = InstrumentedTransmission.wrap(plain, metrics);
+    plain = plain.increaseSpeedBy(30).increaseGear().decreaseSpeedBy(50);
+    wrapped = wrapped.increaseSpeedBy(30).increaseGear().decreaseSpeedBy(50);
+    assertEquals(plain, ((InstrumentedTransmission) wrapped).getDelegate());
+    assertEquals(plain.getStatus(), wrapped.getStatus());
+    TransmissionMetrics.Snapshot snapshot = metrics.snapshot();
+    assertEquals(1, snapshot.getStatusCount(TransmissionStatus.INCREASE_GEAR_FIRST));
+    assertEquals(1, snapshot.getStatusCount(TransmissionStatus.OK));
+    assertEquals(1, snapshot.getStatusCount(TransmissionStatus.DECREASE_GEAR_FIRST));
+  }
+
+  @Test
+  public void testWrapWithoutMetrics() {
+    ManualTransmission plain = new RegularManualTransmission(new GearRangeTable(0, 20));
+    assertSame(plain, InstrumentedTransmission.wrap(plain, null));
+    ManualTransmission wrapped = InstrumentedTransmission.wrap(plain, metrics);
+    assertSame(wrapped, InstrumentedTransmission.wrap(wrapped, metrics));
+  }
+
+  @Test
+  public void testReset() {
+    metrics.create(0, 20).increaseSpeed();
+    metrics.reset();
+    TransmissionMetrics.Snapshot snapshot = metrics.snapshot();
+    assertEquals(0, snapshot.getActionCount(TransmissionAction.INCREASE_SPEED));
+    assertEquals(0, snapshot.getStatusCount(TransmissionStatus.OK));
+    assertEquals(0, snapshot.getValidationCount());
+  }
+}
@@ -0,0 +1,109 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import vehicle.GearRangeTable;
+import vehicle.LookupTableTransmission;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.ReplayTrace;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionReplay;
+import vehicle.TransmissionStateCache;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * This class represents TransmissionReplay class test file.
+ */
+
+public class TransmissionReplayTest {
+
+  private GearRangeTable table;
+  private byte[] actions;
+
+  @Before
+  public void setUp() {
+    table = new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+    actions = RandomActions.of(7, 5000);
+  }
+
+  @Test
+  public void testEmptyReplayReturnsStart() {
+    ManualTransmission start = new RegularManualTransmission(table);
+    assertSame(start, TransmissionReplay.replay(start, new byte[0]));
+  }
+
+  @Test
+  public void testReplayMatchesChainedCalls() {
+    ManualTransmission[] starts = {
+        new RegularManualTransmission(table),
+        new RegularManualTransmission(table, 3),
+        new TransmissionStateCache(table).initial(),
+        new LookupTableTransmission(table),
+    };
+    for (ManualTransmission start : starts) {
+      ReplayTrace trace = new ReplayTrace(actions.length);
+      ManualTransmission end = TransmissionReplay.replay(start, actions, trace);
+      assertEquals(actions.length, trace.length());
+      ManualTransmission expected = start;
+      for (int step = 0; step < actions.length; step++) {
+        expected = TransmissionAction.fromCode(actions[step]).apply(expected);
+        assertEquals(expected.getSpeed(), trace.getSpeed(step));
+        assertEquals(expected.getGear(), trace.getGear(step));
+        assertEquals(expected.getTransmissionStatus(), trace.getTransmissionStatus(step));
+      }
+      assertEquals(expected.getSpeed(), end.getSpeed());
+      assertEquals(expected.getGear(), end.getGear());
+      assertEquals(expected.getStatus(), end.getStatus());
+    }
+  }
+
+  @Test
+  public void testReplayWithoutTrace() {
+    ManualTransmission start = new RegularManualTransmission(table);
+    byte[] ramp = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 2};
+    ManualTransmission end = TransmissionReplay.replay(start, ramp);
+    assertEquals(16, end.getSpeed());
+    assertEquals(2, end.getGear());
+    assertEquals(TransmissionStatus.OK, end.getTransmissionStatus());
+    assertEquals(start.increaseSpeedBy(16).increaseGear(), end);
+  }
+
+  @Test
+  public void testCachedReplayReturnsCanonicalState() {
+    TransmissionStateCache cache = new TransmissionStateCache(table);
+    ManualTransmission end = TransmissionReplay.replay(cache.initial(), actions);
+    ManualTransmission again = TransmissionReplay.replay(cache.initial(), actions);
+    assertSame(end, again);
+  }
+
+  @Test
+  public void testTraceIsReused() {
+    ReplayTrace trace = new ReplayTrace(actions.length);
+    ManualTransmission start = new RegularManualTransmission(table);
+    TransmissionReplay.replay(start, actions, trace);
+    TransmissionReplay.replay(start, new byte[] {0, 0}, trace);
+    assertEquals(2, trace.length());
+    assertEquals(2, trace.getSpeed(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTraceTooSmall() {
+    TransmissionReplay.replay(new RegularManualTransmission(table), actions,
+            new ReplayTrace(actions.length - 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownAction() {
+    TransmissionReplay.replay(new RegularManualTransmission(table), new byte[] {0, 4});
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testStepOutsideTrace() {
+    ReplayTrace trace = new ReplayTrace(4);
+    TransmissionReplay.replay(new RegularManualTransmission(table), new byte[] {0}, trace);
+    trace.getSpeed(1);
+  }
+}
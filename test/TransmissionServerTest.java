@@ -0,0 +1,191 @@
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents TransmissionServer class test file.
+ */
+
+public class TransmissionServerTest {
+
+  private static final GearRangeTable table =
+          new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+  private static final String[] commands = {"+S", "-S", "+G", "-G"};
+
+  private static final class Client implements AutoCloseable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    Client(int port) throws IOException {
+      this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+      this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream(),
+              StandardCharsets.US_ASCII));
+      this.out = new OutputStreamWriter(this.socket.getOutputStream(),
+              StandardCharsets.US_ASCII);
+    }
+
+    String send(String line) throws IOException {
+      this.out.write(line + "\n");
+      this.out.flush();
+      return this.in.readLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.socket.close();
+    }
+  }
+
+  private static String expected(ManualTransmission t) {
+    return t.getSpeed() + " " + t.getGear() + " " + t.getTransmissionStatus().name();
+  }
+
+  @Test
+  public void testSingleCommands() throws IOException {
+    try (TransmissionServer server = TransmissionServer.start(table, 0);
+         Client client = new Client(server.getPort())) {
+      assertEquals("0 1 OK", client.send(""));
+      assertEquals("1 1 OK", client.send("+S"));
+      assertEquals("0 1 OK", client.send("-S"));
+      assertEquals("0 1 MINIMUM_SPEED", client.send("-S"));
+      assertEquals("0 1 INCREASE_SPEED_FIRST", client.send("+G"));
+    }
+  }
+
+  @Test
+  public void testBatchedLine() throws IOException {
+    try (TransmissionServer server = TransmissionServer.start(table, 0);
+         Client client = new Client(server.getPort())) {
+      ManualTransmission t = new RegularManualTransmission(table);
+      StringBuilder line = new StringBuilder();
+      for (int i = 0; i < 16; i++) {
+        t = t.increaseSpeed();
+        line.append(i % 2 == 0 ? "+S " : "+S");
+      }
+      t = t.increaseGear();
+      line.append("+G");
+      assertEquals(expected(t), client.send(line.toString()));
+      assertEquals("0 1 OK", client.send("R"));
+    }
+  }
+
+  @Test
+  public void testUnknownCommandChangesNothing() throws IOException {
+    try (TransmissionServer server = TransmissionServer.start(table, 0);
+         Client client = new Client(server.getPort())) {
+      assertEquals("2 1 OK", client.send("+S +S"));
+      assertTrue(client.send("+S +X").startsWith("ERR"));
+      assertTrue(client.send("+").startsWith("ERR"));
+      assertEquals("2 1 OK", client.send(""));
+    }
+  }
+
+  @Test
+  public void testSessionsAreIndependent() throws Exception {
+    try (TransmissionServer server = TransmissionServer.start(table, 0)) {
+      int sessions = 64;
+      ExecutorService pool = Executors.newFixedThreadPool(16);
+      try {
+        List<Future<?>> results = new ArrayList<>();
+        for (int s = 0; s < sessions; s++) {
+          int seed = s;
+          results.add(pool.submit(() -> {
+            Random random = new Random(seed);
+            ManualTransmission t = new RegularManualTransmission(table);
+            try (Client client = new Client(server.getPort())) {
+              for (int request = 0; request < 50; request++) {
+                StringBuilder line = new StringBuilder();
+                int batch = 1 + random.nextInt(8);
+                for (int i = 0; i < batch; i++) {
+                  int action = random.nextInt(4);
+                  t = TransmissionAction.fromCode(action).apply(t);
+                  line.append(commands[action]).append(' ');
+                }
+                assertEquals(expected(t), client.send(line.toString()));
+              }
+            }
+            return null;
+          }));
+        }
+        for (Future<?> result : results) {
+          result.get();
+        }
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  @Test
+  public void testLongLineEndsSession() throws IOException {
+    try (TransmissionServer server = TransmissionServer.start(table, 0);
+         Client client = new Client(server.getPort())) {
+      StringBuilder line = new StringBuilder();
+      for (int i = 0; i <= TransmissionServer.maxLineLength / 2; i++) {
+        line.append("+S");
+      }
+      assertTrue(client.send(line.toString()).startsWith("ERR"));
+      assertEndOfSession(client);
+    }
+  }
+
+  @Test
+  public void testLongestLineIsAccepted() throws IOException {
+    try (TransmissionServer server = TransmissionServer.start(table, 0);
+         Client client = new Client(server.getPort())) {
+      StringBuilder line = new StringBuilder();
+      for (int i = 0; i < TransmissionServer.maxLineLength / 2; i++) {
+        line.append(i % 2 == 0 ? "+S" : "-S");
+      }
+      assertEquals("0 1 OK", client.send(line.toString()));
+      assertEquals("1 1 OK", client.send("+S\r"));
+    }
+  }
+
+  @Test
+  public void testCloseEndsSessions() throws IOException {
+    Client client;
+    try (TransmissionServer server = TransmissionServer.start(table, 0)) {
+      client = new Client(server.getPort());
+      assertEquals("1 1 OK", client.send("+S"));
+      assertEquals(1, server.getSessionCount());
+    }
+    try {
+      assertEndOfSession(client);
+    } finally {
+      client.close();
+    }
+  }
+
+  private static void assertEndOfSession(Client client) {
+    try {
+      assertNull(client.in.readLine());
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().toLowerCase().contains("reset"));
+    }
+  }
+}
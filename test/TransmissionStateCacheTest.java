@@ -0,0 +1,98 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStateCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents TransmissionStateCache class test file.
+ */
+
+public class TransmissionStateCacheTest {
+
+  private GearRangeTable speedRanges;
+  private TransmissionStateCache cache;
+
+  @Before
+  public void setUp() {
+    speedRanges = new GearRangeTable(0, 20, 20, 40, 40, 60, 60, 80, 80, 100);
+    cache = new TransmissionStateCache(speedRanges);
+  }
+
+  @Test
+  public void testInitialState() {
+    ManualTransmission initial = cache.initial();
+    assertEquals(0, initial.getSpeed());
+    assertEquals(1, initial.getGear());
+    assertEquals("OK: everything is OK.", initial.getStatus());
+    assertSame(initial, cache.initial());
+  }
+
+  @Test
+  public void testTransitionsReturnCanonicalStates() {
+    ManualTransmission first = cache.initial().increaseSpeed();
+    ManualTransmission second = cache.initial().increaseSpeed();
+    assertSame(first, second);
+    assertSame(first, first.increaseSpeed().decreaseSpeed());
+    assertEquals(2, cache.getHits());
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  public void testUncachedTransitionsAreEqualButNotSame() {
+    ManualTransmission uncached = new RegularManualTransmission(speedRanges);
+    assertNotSame(uncached.increaseSpeed(), uncached.increaseSpeed());
+    assertEquals(uncached.increaseSpeed(), uncached.increaseSpeed());
+    assertEquals(uncached.increaseSpeed(), cache.initial().increaseSpeed());
+    assertEquals(uncached.increaseSpeed().hashCode(), cache.initial().increaseSpeed().hashCode());
+  }
+
+  @Test
+  public void testSmallCacheEvictsButStaysCorrect() {
+    TransmissionStateCache small = new TransmissionStateCache(speedRanges, 1, 3);
+    assertEquals(4, small.getCapacity());
+    Random random = new Random(23);
+    ManualTransmission cached = small.initial();
+    ManualTransmission expected = new RegularManualTransmission(speedRanges);
+    for (int step = 0; step < 10000; step++) {
+      TransmissionAction action = TransmissionAction.fromCode(random.nextInt(4));
+      cached = action.apply(cached);
+      expected = action.apply(expected);
+      assertEquals(expected, cached);
+    }
+    assertTrue(small.getEvictions() > 0);
+    assertEquals(10000, small.getHits() + small.getMisses());
+  }
+
+  @Test
+  public void testNoMissesAfterWarmUp() {
+    byte[] actions = RandomActions.of(29, 5000);
+    replay(actions);
+    long misses = cache.getMisses();
+    replay(actions);
+    assertEquals(misses, cache.getMisses());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveCapacity() {
+    new TransmissionStateCache(speedRanges, 1, 0);
+  }
+
+  private ManualTransmission replay(byte[] actions) {
+    ManualTransmission current = cache.initial();
+    for (byte action : actions) {
+      current = TransmissionAction.fromCode(action).apply(current);
+    }
+    return current;
+  }
+}
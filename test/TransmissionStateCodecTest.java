@@ -0,0 +1,103 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import vehicle.GearRangeTable;
+import vehicle.ManualTransmission;
+import vehicle.RegularManualTransmission;
+import vehicle.TransmissionAction;
+import vehicle.TransmissionStateCodec;
+import vehicle.TransmissionStatus;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents TransmissionStateCodec class test file.
+ */
+
+public class TransmissionStateCodecTest {
+
+  private final GearRangeTable table =
+          new GearRangeTable(0, 20, 15, 40, 35, 60, 55, 80, 75, 100);
+
+  @Test
+  public void testPackAndUnpack() {
+    long state = TransmissionStateCodec.pack(Integer.MAX_VALUE, 65535,
+            TransmissionStatus.MINIMUM_GEAR);
+    assertEquals(Integer.MAX_VALUE, TransmissionStateCodec.speed(state));
+    assertEquals(65535, TransmissionStateCodec.gear(state));
+    assertEquals(TransmissionStatus.MINIMUM_GEAR, TransmissionStateCodec.status(state));
+    assertEquals(0, state & 0xFF000000L);
+  }
+
+  @Test
+  public void testInitialState() {
+    long state = TransmissionStateCodec.initial(table);
+    assertEquals(new RegularManualTransmission(table), TransmissionStateCodec.unpack(table, state));
+    assertEquals(state, TransmissionStateCodec.pack(new RegularManualTransmission(table)));
+  }
+
+  @Test
+  public void testStepMatchesRegularTransmission() {
+    Random random = new Random(13);
+    for (int speedChange = 1; speedChange <= 4; speedChange++) {
+      ManualTransmission expected = new RegularManualTransmission(table, speedChange);
+      long state = TransmissionStateCodec.initial(table);
+      for (int step = 0; step < 5000; step++) {
+        int action = random.nextInt(4);
+        expected = TransmissionAction.fromCode(action).apply(expected);
+        state = TransmissionStateCodec.step(table, state, action, speedChange);
+        assertEquals(TransmissionStateCodec.pack(expected), state);
+        assertEquals(expected, TransmissionStateCodec.unpack(table, state, speedChange));
+      }
+    }
+  }
+
+  @Test
+  public void testStatesInLongArray() {
+    long[] states = new long[100];
+    for (int vehicle = 0; vehicle < states.length; vehicle++) {
+      states[vehicle] = TransmissionStateCodec.initial(table);
+      for (int step = 0; step < vehicle; step++) {
+        states[vehicle] = TransmissionStateCodec.step(table, states[vehicle],
+                TransmissionAction.INCREASE_SPEED.getCode());
+      }
+    }
+    assertEquals(20, TransmissionStateCodec.speed(states[20]));
+    assertEquals(20, TransmissionStateCodec.speed(states[99]));
+    assertEquals(TransmissionStatus.INCREASE_GEAR_FIRST, TransmissionStateCodec.status(states[99]));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownAction() {
+    TransmissionStateCodec.step(table, TransmissionStateCodec.initial(table), 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownStatusCode() {
+    TransmissionStateCodec.unpack(table, TransmissionStateCodec.pack(0, 1, 99));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnpackGearAboveTable() {
+    TransmissionStateCodec.unpack(table, TransmissionStateCodec.pack(5, 9,
+            TransmissionStatus.OK));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStepGearZero() {
+    TransmissionStateCodec.step(table, TransmissionStateCodec.pack(5, 0, 0), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStepSpeedAboveMaximum() {
+    TransmissionStateCodec.step(table, TransmissionStateCodec.pack(table.getMaxSpeed() + 1,
+            table.getGearCount(), TransmissionStatus.OK), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnpackNegativeSpeed() {
+    TransmissionStateCodec.unpack(table, TransmissionStateCodec.pack(-1, 1,
+            TransmissionStatus.OK), 2);
+  }
+}